@@ -0,0 +1,102 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.consol.citrus.samples.todolist.dao.InMemoryTodoListDao;
+import com.consol.citrus.samples.todolist.dao.JdbcConfigurationProperties;
+import com.consol.citrus.samples.todolist.dao.JdbcTodoListDao;
+import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.apache.commons.dbcp.BasicDataSource;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Creates todo list storages for benchmarks. The Jdbc storage runs against an in-process HSQLDB memory database, so
+ * results include Jdbc and SQL processing but no network or disk I/O.
+ */
+final class BenchmarkStorage {
+
+    /** In memory storage */
+    static final String IN_MEMORY = "inmemory";
+
+    /** Jdbc storage on in-process HSQLDB */
+    static final String JDBC = "jdbc";
+
+    private BenchmarkStorage() {
+    }
+
+    /**
+     * Creates application context holding the storage of given type as todo list dao bean. Further beans are
+     * registered with given callback before the context is refreshed.
+     * @param storage
+     * @param beans
+     * @return
+     */
+    static AnnotationConfigApplicationContext create(String storage, Consumer<AnnotationConfigApplicationContext> beans) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+        if (JDBC.equals(storage)) {
+            JdbcConfigurationProperties configurationProperties = new JdbcConfigurationProperties();
+            configurationProperties.setDriverClassName("org.hsqldb.jdbcDriver");
+            configurationProperties.setUrl("jdbc:hsqldb:mem:benchmark");
+            configurationProperties.setUsername("sa");
+            configurationProperties.setPassword("");
+
+            context.registerBean(JdbcConfigurationProperties.class, () -> configurationProperties);
+            context.registerBean("dataSource", BasicDataSource.class, () -> {
+                BasicDataSource dataSource = new BasicDataSource();
+                dataSource.setDriverClassName(configurationProperties.getDriverClassName());
+                dataSource.setUrl(configurationProperties.getUrl());
+                dataSource.setUsername(configurationProperties.getUsername());
+                dataSource.setPassword(configurationProperties.getPassword());
+                return dataSource;
+            }, definition -> definition.setDestroyMethodName("close"));
+            context.registerBean(TodoListDao.class, JdbcTodoListDao::new);
+        } else if (IN_MEMORY.equals(storage)) {
+            context.registerBean(TodoListDao.class, InMemoryTodoListDao::new);
+        } else {
+            throw new IllegalArgumentException(String.format("Unsupported storage type '%s'", storage));
+        }
+
+        beans.accept(context);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Replaces all entries of the storage with given number of new entries, every second entry is done.
+     * @param todoListDao
+     * @param size
+     * @return the new entries.
+     */
+    static List<TodoEntry> fill(TodoListDao todoListDao, int size) {
+        List<TodoEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TodoEntry entry = new TodoEntry("todo-" + i, "Description of todo entry " + i);
+            entry.setDone(i % 2 == 0);
+            entries.add(entry);
+        }
+
+        todoListDao.deleteAll();
+        todoListDao.saveAll(entries);
+        return entries;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.jms.JmsApplicationConfig;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import jakarta.jms.MessageListener;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.TextMessage;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.SessionAwareMessageListener;
+
+/**
+ * Measures JmsTemplate throughput against the embedded broker with a raw connection factory and with the caching
+ * connection factory. Covers the report send of the Jms report producer and the request reply round trip of the
+ * synchronous inbound queue, where the reply is sent like Spring's listener adapter does with a producer per reply.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JmsThroughputBenchmark {
+
+    @Param({"raw", "cached"})
+    private String connectionFactoryType;
+
+    private EmbeddedActiveMQ broker;
+    private ConnectionFactory connectionFactory;
+    private DefaultMessageListenerContainer replyContainer;
+    private DefaultMessageListenerContainer reportContainer;
+    private JmsTemplate jmsTemplate;
+
+    private String reportPayload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setSecurityManager(new JmsApplicationConfig().securityManager());
+        broker.start();
+
+        ConnectionFactory brokerConnectionFactory = new ActiveMQConnectionFactory("tcp://localhost:61616", "citrus", "citrus");
+        if (connectionFactoryType.equals("cached")) {
+            CachingConnectionFactory cachingConnectionFactory = new CachingConnectionFactory(brokerConnectionFactory);
+            cachingConnectionFactory.setSessionCacheSize(10);
+            connectionFactory = cachingConnectionFactory;
+        } else {
+            connectionFactory = brokerConnectionFactory;
+        }
+
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        jmsTemplate.setReceiveTimeout(5000L);
+
+        replyContainer = new DefaultMessageListenerContainer();
+        replyContainer.setConnectionFactory(connectionFactory);
+        replyContainer.setDestinationName("jms.todo.inbound.sync");
+        replyContainer.setMessageListener((SessionAwareMessageListener<Message>) (message, session) -> {
+            try (MessageProducer producer = session.createProducer(message.getJMSReplyTo())) {
+                TextMessage reply = session.createTextMessage("Message received");
+                reply.setJMSCorrelationID(message.getJMSCorrelationID());
+                producer.send(reply);
+            }
+        });
+        replyContainer.afterPropertiesSet();
+        replyContainer.start();
+
+        // drains sent reports so the queue does not grow during the benchmark
+        reportContainer = new DefaultMessageListenerContainer();
+        reportContainer.setConnectionFactory(brokerConnectionFactory);
+        reportContainer.setDestinationName("jms.todo.report");
+        reportContainer.setMessageListener((MessageListener) message -> { });
+        reportContainer.afterPropertiesSet();
+        reportContainer.start();
+
+        List<TodoEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            TodoEntry entry = new TodoEntry("todo-" + i, "Description of todo entry " + i);
+            entry.setDone(true);
+            entries.add(entry);
+        }
+        reportPayload = new TodoEntryCodec().writeEntries(entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        replyContainer.shutdown();
+        reportContainer.shutdown();
+        if (connectionFactory instanceof CachingConnectionFactory) {
+            ((CachingConnectionFactory) connectionFactory).destroy();
+        }
+        broker.stop();
+    }
+
+    @Benchmark
+    public void sendReport() {
+        jmsTemplate.send("jms.todo.report", session -> {
+            TextMessage message = session.createTextMessage(reportPayload);
+            message.setStringProperty("_type", TodoEntry.class.getName());
+            return message;
+        });
+    }
+
+    @Benchmark
+    public Message sendAndReceiveSync() {
+        return jmsTemplate.sendAndReceive("jms.todo.inbound.sync",
+                session -> session.createTextMessage("{\"title\":\"benchmark\",\"description\":\"sync\"}"));
+    }
+}
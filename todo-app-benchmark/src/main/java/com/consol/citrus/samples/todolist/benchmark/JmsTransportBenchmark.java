@@ -0,0 +1,91 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.jms.JmsApplicationConfig;
+import com.consol.citrus.samples.todolist.jms.JmsConfigurationProperties;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import jakarta.jms.Message;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Compares the tcp and the in-VM transport of the embedded broker. The broker is configured exactly like in the todo
+ * application and clients use a caching connection factory, so the transport is the only difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JmsTransportBenchmark {
+
+    @Param({"tcp", "vm"})
+    private String transport;
+
+    private EmbeddedActiveMQ broker;
+    private CachingConnectionFactory connectionFactory;
+    private JmsTemplate jmsTemplate;
+
+    private String entryPayload;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        JmsConfigurationProperties configurationProperties = new JmsConfigurationProperties();
+        configurationProperties.setTransport(transport);
+
+        broker = new JmsApplicationConfig().messageBroker(configurationProperties);
+        broker.start();
+
+        connectionFactory = new CachingConnectionFactory(new ActiveMQConnectionFactory(configurationProperties.getBrokerUrl(), "citrus", "citrus"));
+        jmsTemplate = new JmsTemplate(connectionFactory);
+        jmsTemplate.setReceiveTimeout(5000L);
+
+        entryPayload = new TodoEntryCodec().writeEntry(new TodoEntry("Benchmark", "Transport round trip"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connectionFactory.destroy();
+        broker.stop();
+    }
+
+    @Benchmark
+    public Message sendAndReceive() {
+        jmsTemplate.send("jms.todo.benchmark.roundtrip", session -> session.createTextMessage(entryPayload));
+        return jmsTemplate.receive("jms.todo.benchmark.roundtrip");
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the shared todo entry codec with creating a new object mapper per message, which is how the
+ * messaging classes used to decode Kafka records and encode reports. Also compares JSON with Smile decoding
+ * of inbound entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoEntryCodecBenchmark {
+
+    /** Number of entries in an encoded report */
+    @Param({"10", "1000"})
+    private int reportSize;
+
+    private final TodoEntryCodec codec = new TodoEntryCodec();
+
+    private String entryJson;
+    private byte[] entryJsonBytes;
+    private byte[] entrySmile;
+    private List<TodoEntry> report;
+
+    @Setup
+    public void setup() throws IOException {
+        TodoEntry entry = new TodoEntry("Benchmark", "Decode todo entry from Kafka record");
+        entryJson = codec.writeEntry(entry);
+        entryJsonBytes = entryJson.getBytes(StandardCharsets.UTF_8);
+        entrySmile = codec.writeEntrySmile(entry);
+
+        report = new ArrayList<>(reportSize);
+        for (int i = 0; i < reportSize; i++) {
+            TodoEntry done = new TodoEntry("todo-" + i, "Description of todo entry " + i);
+            done.setDone(true);
+            report.add(done);
+        }
+    }
+
+    @Benchmark
+    public TodoEntry decodeEntryPerCallMapper() throws IOException {
+        return new ObjectMapper().readValue(entryJson, TodoEntry.class);
+    }
+
+    @Benchmark
+    public TodoEntry decodeEntrySharedCodec() throws IOException {
+        return codec.readEntry(entryJson);
+    }
+
+    @Benchmark
+    public TodoEntry decodeEntryJsonBytes() throws IOException {
+        return codec.readEntry(entryJsonBytes, TodoEntryCodec.CONTENT_TYPE_JSON);
+    }
+
+    @Benchmark
+    public TodoEntry decodeEntrySmile() throws IOException {
+        return codec.readEntry(entrySmile, TodoEntryCodec.CONTENT_TYPE_SMILE);
+    }
+
+    @Benchmark
+    public byte[] encodeEntrySmile() throws IOException {
+        return codec.writeEntrySmile(report.get(0));
+    }
+
+    @Benchmark
+    public String encodeReportPerCallMapper() throws IOException {
+        return new ObjectMapper().writeValueAsString(report);
+    }
+
+    @Benchmark
+    public String encodeReportSharedCodec() throws IOException {
+        return codec.writeEntries(report);
+    }
+}
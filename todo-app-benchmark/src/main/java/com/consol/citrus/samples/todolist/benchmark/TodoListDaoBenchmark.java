@@ -0,0 +1,123 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Measures the in memory and the Jdbc storage at several numbers of stored entries. Saves are measured together with
+ * deleting the saved entry again, so the number of entries stays the same during the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListDaoBenchmark {
+
+    @Param({BenchmarkStorage.IN_MEMORY, BenchmarkStorage.JDBC})
+    private String storage;
+
+    /** Number of stored entries */
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+    private TodoListDao todoListDao;
+
+    private UUID[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkStorage.create(storage, beans -> { });
+        todoListDao = context.getBean(TodoListDao.class);
+
+        List<TodoEntry> entries = BenchmarkStorage.fill(todoListDao, size);
+        ids = entries.stream().map(TodoEntry::getId).toArray(UUID[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        todoListDao.deleteAll();
+        context.close();
+    }
+
+    @Benchmark
+    public Set<TodoEntry> list() {
+        return todoListDao.list();
+    }
+
+    @Benchmark
+    public List<TodoEntry> listPage() {
+        return todoListDao.list(null, 20);
+    }
+
+    @Benchmark
+    public Optional<TodoEntry> findById() {
+        return todoListDao.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean updateStatus() {
+        return todoListDao.updateStatus(randomId(), ThreadLocalRandom.current().nextBoolean());
+    }
+
+    @Benchmark
+    public void update() {
+        TodoEntry entry = new TodoEntry(randomId(), "updated", "Updated todo entry");
+        todoListDao.update(entry);
+    }
+
+    @Benchmark
+    public boolean saveAndDelete() {
+        TodoEntry entry = new TodoEntry("benchmark", "Saved and deleted todo entry");
+        todoListDao.save(entry);
+        return todoListDao.deleteById(entry.getId());
+    }
+
+    @Benchmark
+    public long countDone() {
+        return todoListDao.countDone();
+    }
+
+    private UUID randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.consol.citrus.samples.todolist.model.TodoListPage;
+import com.consol.citrus.samples.todolist.model.TodoStatistics;
+import com.consol.citrus.samples.todolist.service.StatisticsService;
+import com.consol.citrus.samples.todolist.service.TodoListService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Measures the lookups the web controllers perform through the todo list service, including the maintained
+ * statistics compared to counting entries in the storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListServiceBenchmark {
+
+    @Param({BenchmarkStorage.IN_MEMORY, BenchmarkStorage.JDBC})
+    private String storage;
+
+    /** Number of stored entries */
+    @Param({"1000", "10000"})
+    private int size;
+
+    private AnnotationConfigApplicationContext context;
+    private TodoListService todoListService;
+    private StatisticsService statisticsService;
+
+    private UUID[] ids;
+    private String secondPage;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkStorage.create(storage, beans -> {
+            beans.registerBean(StatisticsService.class);
+            beans.registerBean(TodoListService.class);
+        });
+        todoListService = context.getBean(TodoListService.class);
+        statisticsService = context.getBean(StatisticsService.class);
+
+        List<TodoEntry> entries = BenchmarkStorage.fill(context.getBean(TodoListDao.class), size);
+        ids = entries.stream().map(TodoEntry::getId).toArray(UUID[]::new);
+        secondPage = todoListService.getPage(null, 20).getNext();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TodoEntry getEntry() {
+        return todoListService.getEntry(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public Set<TodoEntry> getAllEntriesLimit() {
+        return todoListService.getAllEntries(20);
+    }
+
+    @Benchmark
+    public TodoListPage getFirstPage() {
+        return todoListService.getPage(null, 20);
+    }
+
+    @Benchmark
+    public TodoListPage getNextPage() {
+        return todoListService.getPage(secondPage, 20);
+    }
+
+    @Benchmark
+    public long getDoneEntryCount() {
+        return todoListService.getDoneEntryCount();
+    }
+
+    @Benchmark
+    public TodoStatistics getStatistics() {
+        return statisticsService.getStatistics();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.consol.citrus.samples.todolist.soap.model.GetTodoListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares Jackson JSON with JAXB XML serialization of a single todo entry and of the todo list SOAP response. Single
+ * entries use the todo entry model for JSON and its SOAP representation for XML, the response is serialized with both
+ * bindings. Marshallers are not thread safe, so every benchmark thread holds its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoSerializationBenchmark {
+
+    private static final String NAMESPACE_URI = "http://citrusframework.org/samples/todolist";
+
+    /** Number of entries in the todo list response */
+    @Param({"10", "100", "1000"})
+    private int listSize;
+
+    private final TodoEntryCodec codec = new TodoEntryCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Marshaller marshaller;
+    private Unmarshaller unmarshaller;
+
+    private TodoEntry entry;
+    private GetTodoListResponse.List.TodoEntry xmlEntry;
+    private GetTodoListResponse response;
+
+    private String entryJson;
+    private String entryXml;
+    private String responseJson;
+    private String responseXml;
+
+    @Setup
+    public void setup() throws IOException, JAXBException {
+        JAXBContext jaxbContext = JAXBContext.newInstance(GetTodoListResponse.class);
+        marshaller = jaxbContext.createMarshaller();
+        unmarshaller = jaxbContext.createUnmarshaller();
+
+        entry = new TodoEntry("Benchmark", "Serialize todo entry");
+        xmlEntry = toXmlEntry(entry);
+
+        response = new GetTodoListResponse();
+        response.setList(new GetTodoListResponse.List());
+        for (int i = 0; i < listSize; i++) {
+            response.getList().getTodoEntry().add(toXmlEntry(new TodoEntry("todo-" + i, "Description of todo entry " + i)));
+        }
+
+        entryJson = writeEntryJson();
+        entryXml = writeEntryXml();
+        responseJson = writeResponseJson();
+        responseXml = writeResponseXml();
+    }
+
+    @Benchmark
+    public String writeEntryJson() throws IOException {
+        return codec.writeEntry(entry);
+    }
+
+    @Benchmark
+    public TodoEntry readEntryJson() throws IOException {
+        return codec.readEntry(entryJson);
+    }
+
+    @Benchmark
+    public String writeEntryXml() throws JAXBException {
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(new JAXBElement<>(new QName(NAMESPACE_URI, "todoEntry"), GetTodoListResponse.List.TodoEntry.class, xmlEntry), writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public GetTodoListResponse.List.TodoEntry readEntryXml() throws JAXBException {
+        return unmarshaller.unmarshal(new StreamSource(new StringReader(entryXml)), GetTodoListResponse.List.TodoEntry.class).getValue();
+    }
+
+    @Benchmark
+    public String writeResponseJson() throws IOException {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public GetTodoListResponse readResponseJson() throws IOException {
+        return objectMapper.readValue(responseJson, GetTodoListResponse.class);
+    }
+
+    @Benchmark
+    public String writeResponseXml() throws JAXBException {
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(response, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public GetTodoListResponse readResponseXml() throws JAXBException {
+        return (GetTodoListResponse) unmarshaller.unmarshal(new StringReader(responseXml));
+    }
+
+    private GetTodoListResponse.List.TodoEntry toXmlEntry(TodoEntry todoEntry) {
+        GetTodoListResponse.List.TodoEntry xml = new GetTodoListResponse.List.TodoEntry();
+        xml.setId(todoEntry.getId().toString());
+        xml.setTitle(todoEntry.getTitle());
+        xml.setDescription(todoEntry.getDescription());
+        return xml;
+    }
+}
@@ -27,9 +27,11 @@ import org.springframework.context.annotation.Bean;
  * @author Christoph Deppisch
  */
 @SpringBootApplication(scanBasePackages = {
+        "com.consol.citrus.samples.todolist.codec",
         "com.consol.citrus.samples.todolist.dao",
         "com.consol.citrus.samples.todolist.jms",
         "com.consol.citrus.samples.todolist.kafka",
+        "com.consol.citrus.samples.todolist.metrics",
         "com.consol.citrus.samples.todolist.service",
         "com.consol.citrus.samples.todolist.soap",
         "com.consol.citrus.samples.todolist.web"
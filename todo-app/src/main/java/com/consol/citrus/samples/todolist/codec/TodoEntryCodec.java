@@ -0,0 +1,121 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.codec;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.consol.citrus.samples.todolist.model.TodoChangeEvent;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * JSON codec for todo entries exchanged with messaging systems. Readers and writers are created once and are
+ * immutable and thread safe, so serializer lookups and type introspection are shared across all messages.
+ *
+ * Single entries may also be exchanged in the binary Smile format, which is smaller and cheaper to parse than JSON
+ * text. Messages select the format with the content type header, messages without content type are JSON.
+ */
+@Component
+public class TodoEntryCodec {
+
+    /** Header carrying the content type of a message payload */
+    public static final String CONTENT_TYPE_HEADER = "contentType";
+
+    public static final String CONTENT_TYPE_JSON = "application/json";
+    public static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
+
+    private final ObjectReader entryReader;
+    private final ObjectWriter entryWriter;
+    private final ObjectReader entriesReader;
+    private final ObjectWriter entriesWriter;
+    private final ObjectWriter eventWriter;
+
+    private final ObjectReader smileEntryReader;
+    private final ObjectWriter smileEntryWriter;
+
+    public TodoEntryCodec() {
+        this(new ObjectMapper());
+    }
+
+    public TodoEntryCodec(ObjectMapper objectMapper) {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        this.smileEntryReader = smileMapper.readerFor(TodoEntry.class);
+        this.smileEntryWriter = smileMapper.writerFor(TodoEntry.class);
+
+        TypeReference<List<TodoEntry>> entriesType = new TypeReference<List<TodoEntry>>() {};
+
+        this.entryReader = objectMapper.readerFor(TodoEntry.class);
+        this.entryWriter = objectMapper.writerFor(TodoEntry.class);
+        this.entriesReader = objectMapper.readerFor(entriesType);
+        this.entriesWriter = objectMapper.writerFor(entriesType);
+        this.eventWriter = objectMapper.writerFor(TodoChangeEvent.class);
+    }
+
+    public TodoEntry readEntry(String json) throws JsonProcessingException {
+        return entryReader.readValue(json);
+    }
+
+    /**
+     * Decodes entry in the format given by the content type.
+     * @param data
+     * @param contentType content type header of the message, JSON is assumed when empty.
+     * @return
+     * @throws IOException
+     */
+    public TodoEntry readEntry(byte[] data, String contentType) throws IOException {
+        if (isSmile(contentType)) {
+            return smileEntryReader.readValue(data);
+        }
+
+        return entryReader.readValue(data);
+    }
+
+    public List<TodoEntry> readEntries(String json) throws JsonProcessingException {
+        return entriesReader.readValue(json);
+    }
+
+    public List<TodoEntry> readEntries(byte[] json) throws IOException {
+        return entriesReader.readValue(json);
+    }
+
+    public String writeEntry(TodoEntry entry) throws JsonProcessingException {
+        return entryWriter.writeValueAsString(entry);
+    }
+
+    public byte[] writeEntrySmile(TodoEntry entry) throws JsonProcessingException {
+        return smileEntryWriter.writeValueAsBytes(entry);
+    }
+
+    public String writeEntries(List<TodoEntry> entries) throws JsonProcessingException {
+        return entriesWriter.writeValueAsString(entries);
+    }
+
+    public String writeEvent(TodoChangeEvent event) throws JsonProcessingException {
+        return eventWriter.writeValueAsString(event);
+    }
+
+    public static boolean isSmile(String contentType) {
+        return contentType != null && contentType.startsWith(CONTENT_TYPE_SMILE);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the configured todo list storage with a caching layer. The storage bean is wrapped after all other
+ * post processing, so caching is applied in front of transaction proxies.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "todo.persistence.cache", value = "enabled")
+@EnableConfigurationProperties(CacheConfigurationProperties.class)
+public class CacheApplicationConfig {
+
+    @Bean
+    public static BeanPostProcessor cachingTodoListDaoPostProcessor(ObjectProvider<CacheConfigurationProperties> configurationProperties,
+                                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof TodoListDao && !(bean instanceof CachingTodoListDao)) {
+                    return new CachingTodoListDao((TodoListDao) bean, configurationProperties.getObject(),
+                            meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+                }
+
+                return bean;
+            }
+        };
+    }
+}
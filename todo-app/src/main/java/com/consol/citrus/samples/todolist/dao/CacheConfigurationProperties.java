@@ -0,0 +1,141 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the caching layer in front of the todo list storage.
+ */
+@ConfigurationProperties(prefix = "todo.persistence.cache")
+public class CacheConfigurationProperties {
+
+    /**
+     * Enables the caching layer.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of entries held in the id cache, least recently used entries are evicted first.
+     */
+    private int maxSize = 10000;
+
+    /**
+     * Queue single entry writes and write them to the storage in batches.
+     */
+    private boolean writeBehind = false;
+
+    /**
+     * Delay in milliseconds between write behind flushes.
+     */
+    private long flushInterval = 500L;
+
+    /**
+     * Number of pending write behind operations that triggers an immediate flush.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Gets the enabled.
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the maxSize.
+     *
+     * @return
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maxSize.
+     *
+     * @param maxSize
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the writeBehind.
+     *
+     * @return
+     */
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Sets the writeBehind.
+     *
+     * @param writeBehind
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Gets the flushInterval.
+     *
+     * @return
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the flushInterval.
+     *
+     * @param flushInterval
+     */
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Gets the batchSize.
+     *
+     * @return
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the batchSize.
+     *
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,617 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Caching decorator for any todo list storage. Id lookups are read through a bounded LRU cache, the full list and the
+ * counters are cached as snapshots that get invalidated on every write.
+ *
+ * In write behind mode single entry writes are queued and coalesced per entry id, then written to the storage as bulk
+ * operations on a fixed interval or as soon as the configured batch size is reached. Reads that need a consistent view
+ * of all entries flush pending writes first, id lookups are answered from the pending writes. Operations of a failed
+ * flush stay pending and are retried by the next flush, reads that flush report the failure.
+ *
+ * Snapshots are stored with the write version they have been loaded at, so a snapshot loaded concurrently to a write is
+ * never served afterwards.
+ */
+public class CachingTodoListDao implements TodoListDao, DisposableBean {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(CachingTodoListDao.class);
+
+    /** Number of flushes an operation is written with before it is dropped */
+    static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final TodoListDao delegate;
+    private final CacheConfigurationProperties configurationProperties;
+
+    /** Incremented on each write, invalidates all snapshots */
+    private final AtomicLong version = new AtomicLong();
+
+    /** Bounded id cache in least recently used order */
+    private final Map<UUID, TodoEntry> entries;
+
+    private final AtomicReference<Snapshot<Set<TodoEntry>>> listSnapshot = new AtomicReference<>();
+    private final AtomicReference<Snapshot<Long>> countSnapshot = new AtomicReference<>();
+    private final AtomicReference<Snapshot<Long>> countDoneSnapshot = new AtomicReference<>();
+
+    /** Pending write behind operations by entry id */
+    private Map<UUID, PendingWrite> pending = new LinkedHashMap<>();
+
+    /** Operations currently written to the storage by a flush */
+    private volatile Map<UUID, PendingWrite> flushing = Collections.emptyMap();
+
+    private final Object flushLock = new Object();
+
+    private ScheduledExecutorService flushExecutor;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter writeFailures;
+
+    public CachingTodoListDao(TodoListDao delegate, CacheConfigurationProperties configurationProperties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.configurationProperties = configurationProperties;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, TodoEntry> eldest) {
+                return size() > configurationProperties.getMaxSize();
+            }
+        };
+
+        hits = Counter.builder("todo.dao.cache.requests")
+                .description("Todo list cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        misses = Counter.builder("todo.dao.cache.requests")
+                .description("Todo list cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        writeFailures = Counter.builder("todo.dao.cache.write.failures")
+                .description("Write behind operations that could not be written to the storage")
+                .register(meterRegistry);
+        Gauge.builder("todo.dao.cache.size", entries, cache -> {
+                    synchronized (cache) {
+                        return cache.size();
+                    }
+                })
+                .description("Number of entries in the id cache")
+                .register(meterRegistry);
+
+        if (configurationProperties.isWriteBehind()) {
+            Gauge.builder("todo.dao.cache.pending", this, dao -> dao.pendingCount())
+                    .description("Number of write behind operations waiting to be flushed")
+                    .register(meterRegistry);
+
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "todo-cache-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, configurationProperties.getFlushInterval(),
+                    configurationProperties.getFlushInterval(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void save(TodoEntry entry) {
+        if (configurationProperties.isWriteBehind()) {
+            enqueue(entry.getId(), new PendingWrite(WriteType.SAVE, entry));
+            return;
+        }
+
+        delegate.save(entry);
+        invalidate(entry.getId());
+    }
+
+    @Override
+    public Set<TodoEntry> list() {
+        flush();
+        return readThrough(listSnapshot, () -> Collections.unmodifiableSet(new LinkedHashSet<>(delegate.list())));
+    }
+
+    @Override
+    public Set<TodoEntry> list(int limit) {
+        flush();
+        return delegate.list(limit);
+    }
+
+    @Override
+    public Stream<TodoEntry> stream() {
+        flush();
+        return delegate.stream();
+    }
+
+    @Override
+    public List<TodoEntry> list(TodoListCursor after, int limit) {
+        flush();
+        return delegate.list(after, limit);
+    }
+
+    @Override
+    public List<TodoEntry> listCreated(long from, long to) {
+        flush();
+        return delegate.listCreated(from, to);
+    }
+
+    @Override
+    public void delete(TodoEntry entry) {
+        deleteById(entry.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        flush();
+        delegate.deleteAll();
+        invalidateAll();
+    }
+
+    @Override
+    public void update(TodoEntry entry) {
+        if (configurationProperties.isWriteBehind()) {
+            TodoEntry found = findById(entry.getId())
+                    .orElseThrow(() -> new RuntimeException(String.format("Unable to find entry with uuid '%s'", entry.getId())));
+
+            enqueue(entry.getId(), new PendingWrite(WriteType.UPDATE, updated(found, entry.getTitle(), entry.getDescription(), entry.isDone())));
+            return;
+        }
+
+        delegate.update(entry);
+        invalidate(entry.getId());
+    }
+
+    @Override
+    public Optional<TodoEntry> findById(UUID id) {
+        if (configurationProperties.isWriteBehind()) {
+            PendingWrite write = pendingWrite(id);
+            if (write != null) {
+                hits.increment();
+                return write.type == WriteType.DELETE ? Optional.empty() : Optional.of(write.entry);
+            }
+        }
+
+        synchronized (entries) {
+            TodoEntry cached = entries.get(id);
+            if (cached != null) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        misses.increment();
+        long loadedAt = version.get();
+        Optional<TodoEntry> found = delegate.findById(id);
+        found.ifPresent(entry -> {
+            synchronized (entries) {
+                if (version.get() == loadedAt) {
+                    entries.put(id, entry);
+                }
+            }
+        });
+
+        return found;
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        if (configurationProperties.isWriteBehind()) {
+            if (findById(id).isEmpty()) {
+                return false;
+            }
+
+            enqueue(id, new PendingWrite(WriteType.DELETE, null));
+            return true;
+        }
+
+        boolean deleted = delegate.deleteById(id);
+        invalidate(id);
+        return deleted;
+    }
+
+    @Override
+    public int deleteByTitle(String title) {
+        flush();
+        int deleted = delegate.deleteByTitle(title);
+        invalidateAll();
+        return deleted;
+    }
+
+    @Override
+    public boolean updateStatus(UUID id, boolean done) {
+        if (configurationProperties.isWriteBehind()) {
+            Optional<TodoEntry> found = findById(id);
+            if (found.isEmpty()) {
+                return false;
+            }
+
+            enqueue(id, new PendingWrite(WriteType.UPDATE, updated(found.get(), found.get().getTitle(), found.get().getDescription(), done)));
+            return true;
+        }
+
+        boolean updated = delegate.updateStatus(id, done);
+        invalidate(id);
+        return updated;
+    }
+
+    @Override
+    public void saveAll(Collection<TodoEntry> entries) {
+        if (configurationProperties.isWriteBehind()) {
+            entries.forEach(this::save);
+            return;
+        }
+
+        delegate.saveAll(entries);
+        entries.forEach(entry -> invalidate(entry.getId()));
+    }
+
+    @Override
+    public void updateAll(Collection<TodoEntry> entries) {
+        flush();
+        delegate.updateAll(entries);
+        entries.forEach(entry -> invalidate(entry.getId()));
+    }
+
+    @Override
+    public int deleteAll(Collection<UUID> ids) {
+        flush();
+        int deleted = delegate.deleteAll(ids);
+        ids.forEach(this::invalidate);
+        return deleted;
+    }
+
+    @Override
+    public long count() {
+        flush();
+        return readThrough(countSnapshot, delegate::count);
+    }
+
+    @Override
+    public long countDone() {
+        flush();
+        return readThrough(countDoneSnapshot, delegate::countDone);
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Writes all pending write behind operations to the storage. Coalesced operations of different entries are
+     * independent of each other, so they are written grouped by type as bulk operations. When a bulk write fails, its
+     * operations are written one by one, so a single operation the storage rejects does not hold back the others.
+     * Operations that still fail are queued again and retried by the next flush, up to a limited number of attempts.
+     * @throws DataAccessException when any of the operations could not be written.
+     */
+    public void flush() {
+        if (!configurationProperties.isWriteBehind()) {
+            return;
+        }
+
+        synchronized (flushLock) {
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+
+                flushing = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            try {
+                Map<UUID, PendingWrite> failed = new LinkedHashMap<>();
+                RuntimeException failure = null;
+                for (WriteType type : WriteType.values()) {
+                    Map<UUID, PendingWrite> batch = new LinkedHashMap<>();
+                    flushing.forEach((id, write) -> {
+                        if (write.type == type) {
+                            batch.put(id, write);
+                        }
+                    });
+
+                    try {
+                        writeBatch(type, batch);
+                    } catch (RuntimeException e) {
+                        log.warn(String.format("Failed to write batch of %s pending todo list operations, writing them one by one", batch.size()), e);
+                        for (Map.Entry<UUID, PendingWrite> operation : batch.entrySet()) {
+                            try {
+                                writeSingle(operation.getKey(), operation.getValue());
+                            } catch (RuntimeException single) {
+                                writeFailures.increment();
+                                failed.put(operation.getKey(), operation.getValue());
+                                failure = single;
+                            }
+                        }
+                        invalidateAll();
+                    }
+                }
+
+                if (failure != null) {
+                    requeue(failed);
+                    throw new DataAccessException(String.format("Failed to write %s pending todo list operations", failed.size()), failure);
+                }
+            } finally {
+                flushing = Collections.emptyMap();
+            }
+        }
+    }
+
+    private void writeBatch(WriteType type, Map<UUID, PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            switch (type) {
+                case SAVE:
+                    delegate.saveAll(entriesOf(batch));
+                    break;
+                case UPDATE:
+                    delegate.updateAll(entriesOf(batch));
+                    break;
+                default:
+                    delegate.deleteAll(new ArrayList<>(batch.keySet()));
+            }
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    private void writeSingle(UUID id, PendingWrite write) {
+        switch (write.type) {
+            case SAVE:
+                delegate.save(write.entry);
+                break;
+            case UPDATE:
+                delegate.update(write.entry);
+                break;
+            default:
+                delegate.deleteById(id);
+        }
+    }
+
+    private List<TodoEntry> entriesOf(Map<UUID, PendingWrite> batch) {
+        List<TodoEntry> batchEntries = new ArrayList<>(batch.size());
+        batch.values().forEach(write -> batchEntries.add(write.entry));
+        return batchEntries;
+    }
+
+    /**
+     * Queues failed operations again in front of the operations that have been added while flushing. An operation
+     * added in between is merged into the failed one, or replaces it when both cannot be merged. Operations that
+     * failed too often are dropped.
+     */
+    private synchronized void requeue(Map<UUID, PendingWrite> failed) {
+        Map<UUID, PendingWrite> requeued = new LinkedHashMap<>();
+        failed.forEach((id, write) -> {
+            if (write.attempts + 1 < MAX_WRITE_ATTEMPTS) {
+                requeued.put(id, write.retry());
+            } else {
+                log.error(String.format("Dropping %s operation on todo entry '%s' after %s failed attempts", write.type, id, MAX_WRITE_ATTEMPTS));
+            }
+        });
+
+        pending.forEach((id, write) -> {
+            PendingWrite earlier = requeued.get(id);
+            PendingWrite merged = earlier != null ? earlier.merge(write) : null;
+            requeued.put(id, merged != null ? merged : write);
+        });
+
+        pending = requeued;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush pending todo list operations, retrying with next flush", e);
+        }
+    }
+
+    /**
+     * Adds write behind operation and coalesces it with the pending operation of the same entry. Combinations that
+     * cannot be merged into a single operation flush the pending operations first.
+     */
+    private void enqueue(UUID id, PendingWrite write) {
+        boolean flushRequired;
+        synchronized (this) {
+            PendingWrite existing = pending.get(id);
+            PendingWrite merged = existing == null ? write : existing.merge(write);
+            flushRequired = merged == null;
+
+            if (!flushRequired) {
+                pending.put(id, merged);
+            }
+        }
+
+        if (flushRequired) {
+            flush();
+            enqueue(id, write);
+            return;
+        }
+
+        invalidate(id);
+        if (write.entry != null) {
+            synchronized (entries) {
+                entries.put(id, write.entry);
+            }
+        }
+
+        if (pendingCount() >= configurationProperties.getBatchSize()) {
+            flushQuietly();
+        }
+    }
+
+    /**
+     * Creates updated copy of given stored entry. Only fields an update may change are taken from the caller, so the
+     * creation time, order key and attachment of the stored entry are kept.
+     */
+    private TodoEntry updated(TodoEntry found, String title, String description, boolean done) {
+        TodoEntry updated = new TodoEntry(found.getId(), title, description, found.getCreatedAt(), found.getOrderKey());
+        updated.setAttachment(found.getAttachment());
+        updated.setDone(done);
+        return updated;
+    }
+
+    private PendingWrite pendingWrite(UUID id) {
+        synchronized (this) {
+            PendingWrite write = pending.get(id);
+            if (write != null) {
+                return write;
+            }
+        }
+
+        return flushing.get(id);
+    }
+
+    private synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private <T> T readThrough(AtomicReference<Snapshot<T>> cache, Supplier<T> loader) {
+        long current = version.get();
+        Snapshot<T> snapshot = cache.get();
+        if (snapshot != null && snapshot.version == current) {
+            hits.increment();
+            return snapshot.value;
+        }
+
+        misses.increment();
+        T value = loader.get();
+        cache.set(new Snapshot<>(current, value));
+        return value;
+    }
+
+    private void invalidate(UUID id) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    private void invalidateAll() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+
+        flush();
+
+        if (delegate instanceof DisposableBean) {
+            ((DisposableBean) delegate).destroy();
+        }
+    }
+
+    /**
+     * Cached value together with the write version it has been loaded at.
+     */
+    private static class Snapshot<T> {
+        private final long version;
+        private final T value;
+
+        Snapshot(long version, T value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    private enum WriteType {
+        SAVE, UPDATE, DELETE
+    }
+
+    /**
+     * Write behind operation for a single entry.
+     */
+    private static class PendingWrite {
+        private final WriteType type;
+        private final TodoEntry entry;
+
+        /** Number of failed flushes this operation has been part of */
+        private final int attempts;
+
+        PendingWrite(WriteType type, TodoEntry entry) {
+            this(type, entry, 0);
+        }
+
+        PendingWrite(WriteType type, TodoEntry entry, int attempts) {
+            this.type = type;
+            this.entry = entry;
+            this.attempts = attempts;
+        }
+
+        /**
+         * Gets this operation after another failed attempt.
+         * @return
+         */
+        PendingWrite retry() {
+            return new PendingWrite(type, entry, attempts + 1);
+        }
+
+        /**
+         * Merges following operation on the same entry into this operation.
+         * @return merged operation or null when the operations cannot be merged.
+         */
+        PendingWrite merge(PendingWrite next) {
+            switch (type) {
+                case SAVE:
+                    return next.type == WriteType.DELETE ? next : new PendingWrite(WriteType.SAVE, next.entry, attempts);
+                case UPDATE:
+                    return next.type == WriteType.SAVE ? null : next;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -16,26 +16,72 @@
 
 package com.consol.citrus.samples.todolist.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 
 /**
+ * In memory storage keeping an id index next to the creation ordered view of all entries. The id index is the
+ * primary storage and serves all id based lookups, updates and deletes in constant time. The sorted view is kept in sync
+ * with the index and is used for listing entries in insertion order. All modifications of an entry run inside the
+ * atomic compute operations of the index, which also keeps the total and done counters in sync.
+ *
  * @author Christoph Deppisch
  */
 public class InMemoryTodoListDao implements TodoListDao {
 
-    /** In memory storage */
-    private final SortedSet<TodoEntry> storage = new ConcurrentSkipListSet<>();
+    /** Orders entries by order key and uses the id as tie-breaker for entries restored with the same order key */
+    private static final Comparator<TodoEntry> CREATION_ORDER = Comparator.<TodoEntry>naturalOrder()
+            .thenComparing(TodoEntry::getId);
+
+    /** Smallest possible id, used to position range bounds before all entries with the same order key */
+    private static final UUID LOWEST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    /** Primary storage indexed by entry id */
+    private final Map<UUID, TodoEntry> index = new ConcurrentHashMap<>();
+
+    /** Creation ordered view on all entries in the index */
+    private final NavigableSet<TodoEntry> storage = new ConcurrentSkipListSet<>(CREATION_ORDER);
+
+    /** Number of entries in the index */
+    private final AtomicLong count = new AtomicLong();
+
+    /** Number of entries in the index that are marked as done */
+    private final AtomicLong doneCount = new AtomicLong();
+
+    /** Incremented after every modification */
+    private final AtomicLong version = new AtomicLong();
 
     @Override
     public void save(TodoEntry entry) {
-        storage.add(entry);
+        index.compute(entry.getId(), (id, existing) -> {
+            if (existing != null) {
+                storage.remove(existing);
+                removed(existing);
+            }
+
+            storage.add(entry);
+            added(entry);
+            return entry;
+        });
+        version.incrementAndGet();
     }
 
     @Override
@@ -45,31 +91,180 @@ public class InMemoryTodoListDao implements TodoListDao {
 
     @Override
     public Set<TodoEntry> list(int limit) {
-        return storage.stream().limit(limit).collect(Collectors.toUnmodifiableSet());
+        Set<TodoEntry> limited = storage.stream()
+                .limit(limit)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return Collections.unmodifiableSet(limited);
+    }
+
+    @Override
+    public Stream<TodoEntry> stream() {
+        return storage.stream();
+    }
+
+    @Override
+    public List<TodoEntry> list(TodoListCursor after, int limit) {
+        NavigableSet<TodoEntry> view = storage;
+        if (after != null) {
+            view = storage.tailSet(probe(after.getOrderKey(), after.getId()), false);
+        }
+
+        return view.stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<TodoEntry> listCreated(long from, long to) {
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        return new ArrayList<>(storage.subSet(probe(TodoEntry.orderKeyOf(from), LOWEST_ID), true,
+                probe(TodoEntry.orderKeyOf(to), LOWEST_ID), false));
     }
 
     @Override
     public void delete(TodoEntry entry) {
-        storage.removeIf(todo -> todo.getId().equals(entry.getId()));
+        deleteById(entry.getId());
     }
 
     @Override
     public void deleteAll() {
-        storage.clear();
+        index.keySet().forEach(this::deleteById);
     }
 
     @Override
     public void update(TodoEntry entry) {
-        Optional<TodoEntry> found = storage.stream()
-                .filter(current -> current.getId().equals(entry.getId()))
-                .findFirst();
-
-        if (found.isEmpty()) {
+        if (!modify(entry.getId(), found -> {
+            found.setTitle(entry.getTitle());
+            found.setDescription(entry.getDescription());
+            found.setDone(entry.isDone());
+        })) {
             throw new RuntimeException(String.format("Unable to find entry with uuid '%s'", entry.getId()));
         }
+    }
+
+    @Override
+    public Optional<TodoEntry> findById(UUID id) {
+        return Optional.ofNullable(index.get(id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return index.containsKey(id);
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        boolean[] deleted = { false };
+        index.computeIfPresent(id, (key, existing) -> {
+            storage.remove(existing);
+            removed(existing);
+            deleted[0] = true;
+            return null;
+        });
+
+        if (deleted[0]) {
+            version.incrementAndGet();
+        }
+
+        return deleted[0];
+    }
+
+    @Override
+    public int deleteByTitle(String title) {
+        int deleted = 0;
+        for (TodoEntry entry : storage) {
+            if (Objects.equals(title, entry.getTitle()) && deleteById(entry.getId())) {
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public boolean updateStatus(UUID id, boolean done) {
+        return modify(id, found -> found.setDone(done));
+    }
 
-        found.get().setTitle(entry.getTitle());
-        found.get().setDescription(entry.getDescription());
-        found.get().setDone(entry.isDone());
+    @Override
+    public void saveAll(Collection<TodoEntry> entries) {
+        entries.forEach(this::save);
+    }
+
+    @Override
+    public void updateAll(Collection<TodoEntry> entries) {
+        entries.forEach(this::update);
+    }
+
+    @Override
+    public int deleteAll(Collection<UUID> ids) {
+        int deleted = 0;
+        for (UUID id : ids) {
+            if (deleteById(id)) {
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public long count() {
+        return count.get();
+    }
+
+    @Override
+    public long countDone() {
+        return doneCount.get();
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Applies modification to the stored entry with given id while holding the entry lock of the index.
+     * @return false when no such entry exists.
+     */
+    private boolean modify(UUID id, Consumer<TodoEntry> modification) {
+        boolean[] modified = { false };
+        index.computeIfPresent(id, (key, found) -> {
+            removed(found);
+            modification.accept(found);
+            added(found);
+            modified[0] = true;
+            return found;
+        });
+
+        if (modified[0]) {
+            version.incrementAndGet();
+        }
+
+        return modified[0];
+    }
+
+    /**
+     * Creates entry that only serves as position in the sorted view.
+     */
+    private TodoEntry probe(long orderKey, UUID id) {
+        return new TodoEntry(id, null, null, 0L, orderKey);
+    }
+
+    private void added(TodoEntry entry) {
+        count.incrementAndGet();
+        if (entry.isDone()) {
+            doneCount.incrementAndGet();
+        }
+    }
+
+    private void removed(TodoEntry entry) {
+        count.decrementAndGet();
+        if (entry.isDone()) {
+            doneCount.decrementAndGet();
+        }
     }
 }
@@ -16,7 +16,6 @@
 
 package com.consol.citrus.samples.todolist.dao;
 
-import org.apache.commons.dbcp.BasicDataSource;
 import org.hsqldb.persist.HsqlProperties;
 import org.hsqldb.server.Server;
 import org.hsqldb.server.ServerAcl;
@@ -74,13 +73,27 @@ public class JdbcApplicationConfig {
 
     @Bean(destroyMethod = "close")
     @DependsOn("database")
-    public BasicDataSource dataSource(JdbcConfigurationProperties configurationProperties) {
-        BasicDataSource dataSource = new BasicDataSource();
+    public MeteredBasicDataSource dataSource(JdbcConfigurationProperties configurationProperties) {
+        MeteredBasicDataSource dataSource = new MeteredBasicDataSource();
         dataSource.setDriverClassName(configurationProperties.getDriverClassName());
         dataSource.setUrl(configurationProperties.getUrl());
         dataSource.setUsername(configurationProperties.getUsername());
         dataSource.setPassword(configurationProperties.getPassword());
 
+        JdbcConfigurationProperties.Pool pool = configurationProperties.getPool();
+        dataSource.setInitialSize(pool.getInitialSize());
+        dataSource.setMaxActive(pool.getMaxActive());
+        dataSource.setMaxIdle(pool.getMaxIdle());
+        dataSource.setMinIdle(pool.getMinIdle());
+        dataSource.setMaxWait(pool.getMaxWait());
+        dataSource.setValidationQuery(pool.getValidationQuery());
+        dataSource.setTestOnBorrow(pool.isTestOnBorrow());
+        dataSource.setTestWhileIdle(pool.isTestWhileIdle());
+        dataSource.setTimeBetweenEvictionRunsMillis(pool.getTimeBetweenEvictionRuns());
+        dataSource.setMinEvictableIdleTimeMillis(pool.getMinEvictableIdleTime());
+        dataSource.setPoolPreparedStatements(pool.isPoolPreparedStatements());
+        dataSource.setMaxOpenPreparedStatements(pool.getMaxOpenPreparedStatements());
+
         return dataSource;
     }
 }
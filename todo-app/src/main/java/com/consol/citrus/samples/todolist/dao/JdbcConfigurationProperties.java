@@ -65,6 +65,16 @@ public class JdbcConfigurationProperties {
      */
     private boolean autoCreateTables = true;
 
+    /**
+     * Number of rows fetched from the database at once when streaming entries.
+     */
+    private int fetchSize = 100;
+
+    /**
+     * Connection pool settings.
+     */
+    private Pool pool = new Pool();
+
     /**
      * Gets the driverClassName.
      *
@@ -212,4 +222,322 @@ public class JdbcConfigurationProperties {
     public void setAutoCreateTables(boolean autoCreateTables) {
         this.autoCreateTables = autoCreateTables;
     }
+
+    /**
+     * Gets the fetchSize.
+     *
+     * @return
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets the fetchSize.
+     *
+     * @param fetchSize
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Gets the pool.
+     *
+     * @return
+     */
+    public Pool getPool() {
+        return pool;
+    }
+
+    /**
+     * Sets the pool.
+     *
+     * @param pool
+     */
+    public void setPool(Pool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Connection pool and prepared statement cache settings.
+     */
+    public static class Pool {
+
+        /**
+         * Number of connections opened when the pool is started.
+         */
+        private int initialSize = 2;
+
+        /**
+         * Maximum number of active connections, negative for no limit.
+         */
+        private int maxActive = 20;
+
+        /**
+         * Maximum number of idle connections kept in the pool.
+         */
+        private int maxIdle = 10;
+
+        /**
+         * Minimum number of idle connections kept in the pool.
+         */
+        private int minIdle = 2;
+
+        /**
+         * Maximum time in milliseconds to wait for a free connection, negative to wait indefinitely.
+         */
+        private long maxWait = 5000L;
+
+        /**
+         * SQL query used to validate connections.
+         */
+        private String validationQuery = "SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS";
+
+        /**
+         * Validate connections before they are borrowed from the pool.
+         */
+        private boolean testOnBorrow = false;
+
+        /**
+         * Validate idle connections in the background eviction run.
+         */
+        private boolean testWhileIdle = true;
+
+        /**
+         * Delay in milliseconds between idle connection eviction runs, zero or less disables eviction.
+         */
+        private long timeBetweenEvictionRuns = 30000L;
+
+        /**
+         * Minimum time in milliseconds a connection may sit idle before it is evicted.
+         */
+        private long minEvictableIdleTime = 60000L;
+
+        /**
+         * Cache prepared statements per connection.
+         */
+        private boolean poolPreparedStatements = true;
+
+        /**
+         * Maximum number of cached prepared statements, negative for no limit.
+         */
+        private int maxOpenPreparedStatements = 100;
+
+        /**
+         * Gets the initialSize.
+         *
+         * @return
+         */
+        public int getInitialSize() {
+            return initialSize;
+        }
+
+        /**
+         * Sets the initialSize.
+         *
+         * @param initialSize
+         */
+        public void setInitialSize(int initialSize) {
+            this.initialSize = initialSize;
+        }
+
+        /**
+         * Gets the maxActive.
+         *
+         * @return
+         */
+        public int getMaxActive() {
+            return maxActive;
+        }
+
+        /**
+         * Sets the maxActive.
+         *
+         * @param maxActive
+         */
+        public void setMaxActive(int maxActive) {
+            this.maxActive = maxActive;
+        }
+
+        /**
+         * Gets the maxIdle.
+         *
+         * @return
+         */
+        public int getMaxIdle() {
+            return maxIdle;
+        }
+
+        /**
+         * Sets the maxIdle.
+         *
+         * @param maxIdle
+         */
+        public void setMaxIdle(int maxIdle) {
+            this.maxIdle = maxIdle;
+        }
+
+        /**
+         * Gets the minIdle.
+         *
+         * @return
+         */
+        public int getMinIdle() {
+            return minIdle;
+        }
+
+        /**
+         * Sets the minIdle.
+         *
+         * @param minIdle
+         */
+        public void setMinIdle(int minIdle) {
+            this.minIdle = minIdle;
+        }
+
+        /**
+         * Gets the maxWait.
+         *
+         * @return
+         */
+        public long getMaxWait() {
+            return maxWait;
+        }
+
+        /**
+         * Sets the maxWait.
+         *
+         * @param maxWait
+         */
+        public void setMaxWait(long maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        /**
+         * Gets the validationQuery.
+         *
+         * @return
+         */
+        public String getValidationQuery() {
+            return validationQuery;
+        }
+
+        /**
+         * Sets the validationQuery.
+         *
+         * @param validationQuery
+         */
+        public void setValidationQuery(String validationQuery) {
+            this.validationQuery = validationQuery;
+        }
+
+        /**
+         * Gets the testOnBorrow.
+         *
+         * @return
+         */
+        public boolean isTestOnBorrow() {
+            return testOnBorrow;
+        }
+
+        /**
+         * Sets the testOnBorrow.
+         *
+         * @param testOnBorrow
+         */
+        public void setTestOnBorrow(boolean testOnBorrow) {
+            this.testOnBorrow = testOnBorrow;
+        }
+
+        /**
+         * Gets the testWhileIdle.
+         *
+         * @return
+         */
+        public boolean isTestWhileIdle() {
+            return testWhileIdle;
+        }
+
+        /**
+         * Sets the testWhileIdle.
+         *
+         * @param testWhileIdle
+         */
+        public void setTestWhileIdle(boolean testWhileIdle) {
+            this.testWhileIdle = testWhileIdle;
+        }
+
+        /**
+         * Gets the timeBetweenEvictionRuns.
+         *
+         * @return
+         */
+        public long getTimeBetweenEvictionRuns() {
+            return timeBetweenEvictionRuns;
+        }
+
+        /**
+         * Sets the timeBetweenEvictionRuns.
+         *
+         * @param timeBetweenEvictionRuns
+         */
+        public void setTimeBetweenEvictionRuns(long timeBetweenEvictionRuns) {
+            this.timeBetweenEvictionRuns = timeBetweenEvictionRuns;
+        }
+
+        /**
+         * Gets the minEvictableIdleTime.
+         *
+         * @return
+         */
+        public long getMinEvictableIdleTime() {
+            return minEvictableIdleTime;
+        }
+
+        /**
+         * Sets the minEvictableIdleTime.
+         *
+         * @param minEvictableIdleTime
+         */
+        public void setMinEvictableIdleTime(long minEvictableIdleTime) {
+            this.minEvictableIdleTime = minEvictableIdleTime;
+        }
+
+        /**
+         * Gets the poolPreparedStatements.
+         *
+         * @return
+         */
+        public boolean isPoolPreparedStatements() {
+            return poolPreparedStatements;
+        }
+
+        /**
+         * Sets the poolPreparedStatements.
+         *
+         * @param poolPreparedStatements
+         */
+        public void setPoolPreparedStatements(boolean poolPreparedStatements) {
+            this.poolPreparedStatements = poolPreparedStatements;
+        }
+
+        /**
+         * Gets the maxOpenPreparedStatements.
+         *
+         * @return
+         */
+        public int getMaxOpenPreparedStatements() {
+            return maxOpenPreparedStatements;
+        }
+
+        /**
+         * Sets the maxOpenPreparedStatements.
+         *
+         * @param maxOpenPreparedStatements
+         */
+        public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements) {
+            this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+        }
+    }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates and migrates the todo list database schema. Each migration step is applied exactly once and its version is
+ * recorded in the schema version table, so existing databases are upgraded in place on application startup. Steps
+ * check the actual table structure before changing it, because tables may have been created by earlier unversioned
+ * releases of the application.
+ */
+@SuppressWarnings({"SqlNoDataSourceInspection", "SqlDialectInspection"})
+class JdbcSchemaInitializer {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(JdbcSchemaInitializer.class);
+
+    private static final String TABLE = "todo_entries";
+
+    /** Ordered migration steps, the position in this list is the schema version reached by the step */
+    private final List<Migration> migrations = Arrays.asList(
+            (statement, metaData) -> statement.executeUpdate("CREATE TABLE IF NOT EXISTS todo_entries (id VARCHAR(50), title VARCHAR(255), description VARCHAR(255), done BOOLEAN)"),
+            (statement, metaData) -> {
+                if (!hasColumn(metaData, "created_at")) {
+                    statement.executeUpdate("ALTER TABLE todo_entries ADD COLUMN created_at BIGINT DEFAULT 0 NOT NULL");
+                }
+            },
+            (statement, metaData) -> {
+                if (!hasPrimaryKey(metaData)) {
+                    statement.executeUpdate("ALTER TABLE todo_entries ALTER COLUMN id SET NOT NULL");
+                    statement.executeUpdate("ALTER TABLE todo_entries ADD CONSTRAINT todo_entries_pk PRIMARY KEY (id)");
+                }
+            },
+            (statement, metaData) -> {
+                createIndex(statement, metaData, "todo_entries_title_idx", "title");
+                createIndex(statement, metaData, "todo_entries_done_idx", "done");
+                createIndex(statement, metaData, "todo_entries_created_at_idx", "created_at, id");
+            },
+            (statement, metaData) -> {
+                if (!hasColumn(metaData, "order_key")) {
+                    statement.executeUpdate("ALTER TABLE todo_entries ADD COLUMN order_key BIGINT DEFAULT 0 NOT NULL");
+                    statement.executeUpdate("UPDATE todo_entries SET order_key = created_at * " + (1L << TodoEntry.ORDER_KEY_SEQUENCE_BITS));
+                }
+                createIndex(statement, metaData, "todo_entries_order_key_idx", "order_key, id");
+            },
+            (statement, metaData) -> dropIndex(statement, metaData, "todo_entries_created_at_idx")
+    );
+
+    private final DataSource dataSource;
+
+    JdbcSchemaInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Applies all migration steps that have not been applied to the database yet.
+     */
+    void migrate() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS todo_schema_version (version INT NOT NULL)");
+
+                int version = getVersion(statement);
+                DatabaseMetaData metaData = connection.getMetaData();
+                for (int step = version; step < migrations.size(); step++) {
+                    log.info(String.format("Migrating todo list schema to version %s", step + 1));
+                    migrations.get(step).apply(statement, metaData);
+                    setVersion(connection, version, step + 1);
+                    version = step + 1;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not migrate db tables", e);
+        }
+    }
+
+    private int getVersion(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM todo_schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void setVersion(Connection connection, int current, int version) throws SQLException {
+        String sql = current == 0 ? "INSERT INTO todo_schema_version (version) VALUES (?)" : "UPDATE todo_schema_version SET version = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, version);
+            statement.executeUpdate();
+        }
+    }
+
+    private void createIndex(Statement statement, DatabaseMetaData metaData, String index, String columns) throws SQLException {
+        if (!hasIndex(metaData, index)) {
+            statement.executeUpdate(String.format("CREATE INDEX %s ON %s (%s)", index, TABLE, columns));
+        }
+    }
+
+    private void dropIndex(Statement statement, DatabaseMetaData metaData, String index) throws SQLException {
+        if (hasIndex(metaData, index)) {
+            statement.executeUpdate(String.format("DROP INDEX %s", index));
+        }
+    }
+
+    private boolean hasColumn(DatabaseMetaData metaData, String column) throws SQLException {
+        try (ResultSet columns = metaData.getColumns(null, null, identifier(metaData, TABLE), identifier(metaData, column))) {
+            return columns.next();
+        }
+    }
+
+    private boolean hasPrimaryKey(DatabaseMetaData metaData) throws SQLException {
+        try (ResultSet primaryKeys = metaData.getPrimaryKeys(null, null, identifier(metaData, TABLE))) {
+            return primaryKeys.next();
+        }
+    }
+
+    private boolean hasIndex(DatabaseMetaData metaData, String index) throws SQLException {
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, identifier(metaData, TABLE), false, false)) {
+            while (indexes.next()) {
+                if (identifier(metaData, index).equals(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Converts unquoted identifier to the case the database uses in its meta data.
+     */
+    private String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase();
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase();
+        }
+
+        return name;
+    }
+
+    /**
+     * Single schema migration step.
+     */
+    @FunctionalInterface
+    private interface Migration {
+        void apply(Statement statement, DatabaseMetaData metaData) throws SQLException;
+    }
+}
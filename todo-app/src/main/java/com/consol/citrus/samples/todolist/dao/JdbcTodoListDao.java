@@ -16,20 +16,31 @@
 
 package com.consol.citrus.samples.todolist.dao;
 
-import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * @author Christoph Deppisch
@@ -37,27 +48,37 @@ import org.springframework.beans.factory.annotation.Autowired;
 @SuppressWarnings({"SqlNoDataSourceInspection", "SqlDialectInspection"})
 public class JdbcTodoListDao implements TodoListDao, InitializingBean {
 
+    /** Columns selected for each todo entry in the order expected by {@link #toTodoEntry(ResultSet)} */
+    private static final String ENTRY_COLUMNS = "id, title, description, done, created_at, order_key";
+
     @Autowired
     private DataSource dataSource;
 
     @Autowired
     private JdbcConfigurationProperties jdbcConfigurationProperties;
 
+    /** Incremented after every write once it is visible to other connections */
+    private final AtomicLong version = new AtomicLong();
+
     @Override
     public void save(TodoEntry entry) {
         try {
             try (Connection connection = getConnection()) {
                 connection.setAutoCommit(true);
-                try (PreparedStatement statement = connection.prepareStatement("INSERT INTO todo_entries (id, title, description, done) VALUES (?, ?, ?, ?)")) {
-                    statement.setString(1, getNextId());
+                try (PreparedStatement statement = connection.prepareStatement("INSERT INTO todo_entries (id, title, description, done, created_at, order_key) VALUES (?, ?, ?, ?, ?, ?)")) {
+                    statement.setString(1, entry.getId() != null ? entry.getId().toString() : getNextId());
                     statement.setString(2, entry.getTitle());
                     statement.setString(3, entry.getDescription());
                     statement.setBoolean(4, entry.isDone());
+                    statement.setLong(5, entry.getCreatedAt());
+                    statement.setLong(6, entry.getOrderKey());
                     statement.executeUpdate();
                 }
             }
         } catch (SQLException e) {
             throw new DataAccessException("Could not save entry " + entry, e);
+        } finally {
+            written();
         }
     }
 
@@ -70,8 +91,8 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
         try {
             try (Connection connection = getConnection()) {
                 try (Statement statement = connection.createStatement()) {
-                    try (ResultSet resultSet = statement.executeQuery("SELECT id, title, description FROM todo_entries")) {
-                        return convertToTodoEntry(resultSet);
+                    try (ResultSet resultSet = statement.executeQuery("SELECT " + ENTRY_COLUMNS + " FROM todo_entries ORDER BY order_key, id")) {
+                        return new LinkedHashSet<>(convertToTodoEntry(resultSet));
                     }
                 }
             }
@@ -82,12 +103,70 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
 
     @Override
     public Set<TodoEntry> list(int limit) {
-        try (Connection connection = getConnection()) {
-            try(CallableStatement callableStatement = connection.prepareCall("{CALL limitedToDoList(?)}")){
-                callableStatement.setInt(1, limit);
-                callableStatement.execute();
-                try(ResultSet resultSet = callableStatement.getResultSet()){
-                    return convertToTodoEntry(resultSet);
+        return new LinkedHashSet<>(list(null, limit));
+    }
+
+    @Override
+    public Stream<TodoEntry> stream() {
+        try {
+            Connection connection = getConnection();
+            try {
+                Statement statement = connection.createStatement();
+                statement.setFetchSize(jdbcConfigurationProperties.getFetchSize());
+                ResultSet resultSet = statement.executeQuery("SELECT " + ENTRY_COLUMNS + " FROM todo_entries ORDER BY order_key, id");
+
+                return StreamSupport.stream(new Spliterators.AbstractSpliterator<TodoEntry>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                    @Override
+                    public boolean tryAdvance(Consumer<? super TodoEntry> action) {
+                        try {
+                            if (!resultSet.next()) {
+                                return false;
+                            }
+
+                            action.accept(toTodoEntry(resultSet));
+                            return true;
+                        } catch (SQLException e) {
+                            throw new DataAccessException("Could not read next entry", e);
+                        }
+                    }
+                }, false).onClose(() -> {
+                    try (connection; statement; resultSet) {
+                        // closes cursor, statement and connection in reverse order
+                    } catch (SQLException e) {
+                        throw new DataAccessException("Could not close entry stream", e);
+                    }
+                });
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not stream entries", e);
+        }
+    }
+
+    @Override
+    public List<TodoEntry> list(TodoListCursor after, int limit) {
+        try {
+            try (Connection connection = getConnection()) {
+                if (after == null) {
+                    try (PreparedStatement statement = connection.prepareStatement("SELECT " + ENTRY_COLUMNS + " FROM todo_entries ORDER BY order_key, id LIMIT ?")) {
+                        statement.setInt(1, limit);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            return convertToTodoEntry(resultSet);
+                        }
+                    }
+                }
+
+                try (PreparedStatement statement = connection.prepareStatement("SELECT " + ENTRY_COLUMNS + " FROM todo_entries " +
+                        "WHERE order_key >= ? AND (order_key > ? OR id > ?) ORDER BY order_key, id LIMIT ?")) {
+                    statement.setLong(1, after.getOrderKey());
+                    statement.setLong(2, after.getOrderKey());
+                    statement.setString(3, after.getId().toString());
+                    statement.setInt(4, limit);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return convertToTodoEntry(resultSet);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -95,17 +174,42 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
         }
     }
 
-    private Set<TodoEntry> convertToTodoEntry(ResultSet resultSet) throws SQLException {
-        Set<TodoEntry> list = new HashSet<>();
+    @Override
+    public List<TodoEntry> listCreated(long from, long to) {
+        try {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT " + ENTRY_COLUMNS + " FROM todo_entries " +
+                        "WHERE order_key >= ? AND order_key < ? ORDER BY order_key, id")) {
+                    statement.setFetchSize(jdbcConfigurationProperties.getFetchSize());
+                    statement.setLong(1, TodoEntry.orderKeyOf(from));
+                    statement.setLong(2, TodoEntry.orderKeyOf(to));
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return convertToTodoEntry(resultSet);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not list entries created between " + from + " and " + to, e);
+        }
+    }
+
+    private List<TodoEntry> convertToTodoEntry(ResultSet resultSet) throws SQLException {
+        List<TodoEntry> list = new ArrayList<>();
         while (resultSet.next()) {
-            final String id = resultSet.getString(1);
-            final String title = resultSet.getString(2);
-            final String description = resultSet.getString(3);
-            list.add(new TodoEntry(UUID.fromString(id), title, description));
+            list.add(toTodoEntry(resultSet));
         }
         return list;
     }
 
+    private TodoEntry toTodoEntry(ResultSet resultSet) throws SQLException {
+        final String id = resultSet.getString(1);
+        final String title = resultSet.getString(2);
+        final String description = resultSet.getString(3);
+        TodoEntry entry = new TodoEntry(UUID.fromString(id), title, description, resultSet.getLong(5), resultSet.getLong(6));
+        entry.setDone(resultSet.getBoolean(4));
+        return entry;
+    }
+
     @Override
     public void delete(TodoEntry entry) {
         try {
@@ -118,6 +222,8 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
             }
         } catch (SQLException e) {
             throw new DataAccessException("Could not delete entries for title " + entry.getId().toString(), e);
+        } finally {
+            written();
         }
     }
 
@@ -131,6 +237,8 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
             }
         } catch (SQLException e) {
             throw new DataAccessException("Could not delete entries", e);
+        } finally {
+            written();
         }
     }
 
@@ -139,7 +247,7 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
         try {
             try (Connection connection = getConnection()) {
                 connection.setAutoCommit(true);
-                try (PreparedStatement statement = connection.prepareStatement("UPDATE todo_entries SET (title, description, done) VALUES (?, ?, ?) WHERE id = ?")) {
+                try (PreparedStatement statement = connection.prepareStatement("UPDATE todo_entries SET title = ?, description = ?, done = ? WHERE id = ?")) {
                     statement.setString(1, entry.getTitle());
                     statement.setString(2, entry.getDescription());
                     statement.setBoolean(3, entry.isDone());
@@ -149,9 +257,240 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
             }
         } catch (SQLException e) {
             throw new DataAccessException("Could not update entry " + entry, e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public Optional<TodoEntry> findById(UUID id) {
+        try {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT " + ENTRY_COLUMNS + " FROM todo_entries WHERE id = ?")) {
+                    statement.setString(1, id.toString());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return Optional.empty();
+                        }
+
+                        return Optional.of(toTodoEntry(resultSet));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not find entry for id " + id, e);
+        }
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        try {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM todo_entries WHERE id = ?")) {
+                    statement.setString(1, id.toString());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next();
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not check entry for id " + id, e);
+        }
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        try {
+            try (Connection connection = getConnection()) {
+                connection.setAutoCommit(true);
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM todo_entries WHERE id = ?")) {
+                    statement.setString(1, id.toString());
+                    return statement.executeUpdate() > 0;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not delete entry for id " + id, e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public int deleteByTitle(String title) {
+        try {
+            try (Connection connection = getConnection()) {
+                connection.setAutoCommit(true);
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM todo_entries WHERE title = ?")) {
+                    statement.setString(1, title);
+                    return statement.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not delete entries for title " + title, e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public boolean updateStatus(UUID id, boolean done) {
+        try {
+            try (Connection connection = getConnection()) {
+                connection.setAutoCommit(true);
+                try (PreparedStatement statement = connection.prepareStatement("UPDATE todo_entries SET done = ? WHERE id = ?")) {
+                    statement.setBoolean(1, done);
+                    statement.setString(2, id.toString());
+                    return statement.executeUpdate() > 0;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not update status for entry " + id, e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<TodoEntry> entries) {
+        try {
+            executeBatch("INSERT INTO todo_entries (id, title, description, done, created_at, order_key) VALUES (?, ?, ?, ?, ?, ?)", entries, (statement, entry) -> {
+                statement.setString(1, entry.getId() != null ? entry.getId().toString() : getNextId());
+                statement.setString(2, entry.getTitle());
+                statement.setString(3, entry.getDescription());
+                statement.setBoolean(4, entry.isDone());
+                statement.setLong(5, entry.getCreatedAt());
+                statement.setLong(6, entry.getOrderKey());
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not save batch of " + entries.size() + " entries", e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<TodoEntry> entries) {
+        try {
+            executeBatch("UPDATE todo_entries SET title = ?, description = ?, done = ? WHERE id = ?", entries, (statement, entry) -> {
+                statement.setString(1, entry.getTitle());
+                statement.setString(2, entry.getDescription());
+                statement.setBoolean(3, entry.isDone());
+                statement.setString(4, entry.getId().toString());
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not update batch of " + entries.size() + " entries", e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<UUID> ids) {
+        try {
+            int deleted = 0;
+            for (int count : executeBatch("DELETE FROM todo_entries WHERE id = ?", ids,
+                    (statement, id) -> statement.setString(1, id.toString()))) {
+                if (count > 0) {
+                    deleted += count;
+                }
+            }
+            return deleted;
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not delete batch of " + ids.size() + " entries", e);
+        } finally {
+            written();
+        }
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Increments the version after a write. Within a transaction the version is incremented once the transaction
+     * has completed, so readers never see the new version together with the old data.
+     */
+    private void written() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    @Override
+    public long count() {
+        return count("SELECT COUNT(*) FROM todo_entries");
+    }
+
+    @Override
+    public long countDone() {
+        return count("SELECT COUNT(*) FROM todo_entries WHERE done = TRUE");
+    }
+
+    private long count(String sql) {
+        try {
+            try (Connection connection = getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    try (ResultSet resultSet = statement.executeQuery(sql)) {
+                        resultSet.next();
+                        return resultSet.getLong(1);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Could not count entries", e);
         }
     }
 
+    /**
+     * Runs given statement for all items as JDBC batch on a single connection. All items are committed
+     * in one transaction, so either all or none of the items are written.
+     * @param sql
+     * @param items
+     * @param binder
+     * @return update counts of the batch.
+     * @throws SQLException
+     */
+    private <T> int[] executeBatch(String sql, Collection<T> items, StatementBinder<T> binder) throws SQLException {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (T item : items) {
+                    binder.bind(statement, item);
+                    statement.addBatch();
+                }
+
+                int[] counts = statement.executeBatch();
+                connection.commit();
+                return counts;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Binds a single batch item to the prepared statement parameters.
+     */
+    @FunctionalInterface
+    private interface StatementBinder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+
     private Connection getConnection() throws SQLException {
         return getDataSource().getConnection();
     }
@@ -163,16 +502,7 @@ public class JdbcTodoListDao implements TodoListDao, InitializingBean {
     @Override
     public void afterPropertiesSet() throws Exception {
         if (jdbcConfigurationProperties.isAutoCreateTables()) {
-            try {
-                try (Connection connection = getConnection()) {
-                    connection.setAutoCommit(true);
-                    try (PreparedStatement statement = connection.prepareStatement("CREATE TABLE IF NOT EXISTS todo_entries (id VARCHAR(50), title VARCHAR(255), description VARCHAR(255), done BOOLEAN)")) {
-                        statement.executeUpdate();
-                    }
-                }
-            } catch (SQLException e) {
-                throw new DataAccessException("Could not create db tables", e);
-            }
+            new JdbcSchemaInitializer(getDataSource()).migrate();
         }
     }
 }
@@ -16,9 +16,15 @@
 
 package com.consol.citrus.samples.todolist.dao;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional
@@ -34,6 +40,26 @@ public class JdbcTransactionalTodoListDao extends JdbcTodoListDao {
         return super.list();
     }
 
+    @Override
+    public Set<TodoEntry> list(final int limit) {
+        return super.list(limit);
+    }
+
+    @Override
+    public Stream<TodoEntry> stream() {
+        return super.stream();
+    }
+
+    @Override
+    public List<TodoEntry> list(final TodoListCursor after, final int limit) {
+        return super.list(after, limit);
+    }
+
+    @Override
+    public List<TodoEntry> listCreated(final long from, final long to) {
+        return super.listCreated(from, to);
+    }
+
     @Override
     public void delete(final TodoEntry entry) {
         super.delete(entry);
@@ -49,4 +75,60 @@ public class JdbcTransactionalTodoListDao extends JdbcTodoListDao {
         super.update(entry);
     }
 
+    @Override
+    public Optional<TodoEntry> findById(final UUID id) {
+        return super.findById(id);
+    }
+
+    @Override
+    public boolean existsById(final UUID id) {
+        return super.existsById(id);
+    }
+
+    @Override
+    public boolean deleteById(final UUID id) {
+        return super.deleteById(id);
+    }
+
+    @Override
+    public int deleteByTitle(final String title) {
+        return super.deleteByTitle(title);
+    }
+
+    @Override
+    public boolean updateStatus(final UUID id, final boolean done) {
+        return super.updateStatus(id, done);
+    }
+
+    @Override
+    public void saveAll(final Collection<TodoEntry> entries) {
+        super.saveAll(entries);
+    }
+
+    @Override
+    public void updateAll(final Collection<TodoEntry> entries) {
+        super.updateAll(entries);
+    }
+
+    @Override
+    public int deleteAll(final Collection<UUID> ids) {
+        return super.deleteAll(ids);
+    }
+
+    @Override
+    public long count() {
+        return super.count();
+    }
+
+    @Override
+    public long countDone() {
+        return super.countDone();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long version() {
+        return super.version();
+    }
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.dbcp.BasicDataSource;
+
+/**
+ * Connection pool publishing the number of active and idle connections as well as the time spent waiting
+ * for a connection to the meter registry.
+ */
+public class MeteredBasicDataSource extends BasicDataSource implements MeterBinder {
+
+    private volatile Timer waitTimer;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Timer timer = waitTimer;
+        if (timer == null) {
+            return super.getConnection();
+        }
+
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.jdbc.pool.active", this, BasicDataSource::getNumActive)
+                .description("Number of connections currently borrowed from the pool")
+                .register(registry);
+        Gauge.builder("todo.jdbc.pool.idle", this, BasicDataSource::getNumIdle)
+                .description("Number of idle connections in the pool")
+                .register(registry);
+        Gauge.builder("todo.jdbc.pool.max", this, BasicDataSource::getMaxActive)
+                .description("Maximum number of active connections")
+                .register(registry);
+
+        waitTimer = Timer.builder("todo.jdbc.pool.wait")
+                .description("Time spent waiting for a connection from the pool")
+                .register(registry);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the memory mapped append only log storage.
+ */
+@ConfigurationProperties(prefix = "todo.mmap")
+public class MmapConfigurationProperties {
+
+    /**
+     * Directory holding the log segment files.
+     */
+    private String directory = "target/todo-log";
+
+    /**
+     * Size of a single log segment file in bytes.
+     */
+    private int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * Flush written records to disk after each write operation.
+     * When disabled records survive a crash of the application but not a crash of the operating system.
+     */
+    private boolean forceOnWrite = false;
+
+    /**
+     * Delay in milliseconds between background compaction runs, zero or less disables compaction.
+     */
+    private long compactionInterval = 60000L;
+
+    /**
+     * Number of log segments that triggers compaction.
+     */
+    private int compactionThreshold = 4;
+
+    /**
+     * Gets the directory.
+     *
+     * @return
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sets the directory.
+     *
+     * @param directory
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the segmentSize.
+     *
+     * @return
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Sets the segmentSize.
+     *
+     * @param segmentSize
+     */
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Gets the forceOnWrite.
+     *
+     * @return
+     */
+    public boolean isForceOnWrite() {
+        return forceOnWrite;
+    }
+
+    /**
+     * Sets the forceOnWrite.
+     *
+     * @param forceOnWrite
+     */
+    public void setForceOnWrite(boolean forceOnWrite) {
+        this.forceOnWrite = forceOnWrite;
+    }
+
+    /**
+     * Gets the compactionInterval.
+     *
+     * @return
+     */
+    public long getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    /**
+     * Sets the compactionInterval.
+     *
+     * @param compactionInterval
+     */
+    public void setCompactionInterval(long compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    /**
+     * Gets the compactionThreshold.
+     *
+     * @return
+     */
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the compactionThreshold.
+     *
+     * @param compactionThreshold
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+}
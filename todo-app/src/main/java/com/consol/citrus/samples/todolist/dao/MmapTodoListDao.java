@@ -0,0 +1,362 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Durable storage writing all modifications to an append only log of memory mapped segment files. All reads are served
+ * from an in memory id index that is rebuilt by replaying the log on startup. Writes are serialized, appended to the log
+ * first and then applied to the index. A background task compacts the log once it spans too many segments.
+ */
+public class MmapTodoListDao implements TodoListDao, InitializingBean, DisposableBean {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(MmapTodoListDao.class);
+
+    private final MmapConfigurationProperties configurationProperties;
+
+    /** In memory index serving all reads */
+    private final InMemoryTodoListDao index = new InMemoryTodoListDao();
+
+    private final MmapTodoLog todoLog;
+
+    private ScheduledExecutorService compactionExecutor;
+
+    public MmapTodoListDao(MmapConfigurationProperties configurationProperties) {
+        this.configurationProperties = configurationProperties;
+        this.todoLog = new MmapTodoLog(Paths.get(configurationProperties.getDirectory()), configurationProperties.getSegmentSize());
+    }
+
+    @Override
+    public void save(TodoEntry entry) {
+        synchronized (todoLog) {
+            try {
+                todoLog.put(entry);
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not save entry " + entry, e);
+            }
+
+            index.save(entry);
+        }
+    }
+
+    @Override
+    public Set<TodoEntry> list() {
+        return index.list();
+    }
+
+    @Override
+    public Set<TodoEntry> list(int limit) {
+        return index.list(limit);
+    }
+
+    @Override
+    public Stream<TodoEntry> stream() {
+        return index.stream();
+    }
+
+    @Override
+    public List<TodoEntry> list(TodoListCursor after, int limit) {
+        return index.list(after, limit);
+    }
+
+    @Override
+    public List<TodoEntry> listCreated(long from, long to) {
+        return index.listCreated(from, to);
+    }
+
+    @Override
+    public void delete(TodoEntry entry) {
+        deleteById(entry.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        synchronized (todoLog) {
+            try {
+                todoLog.clear();
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not delete entries", e);
+            }
+
+            index.deleteAll();
+        }
+    }
+
+    @Override
+    public void update(TodoEntry entry) {
+        synchronized (todoLog) {
+            TodoEntry found = index.findById(entry.getId())
+                    .orElseThrow(() -> new RuntimeException(String.format("Unable to find entry with uuid '%s'", entry.getId())));
+
+            TodoEntry updated = copyOf(found);
+            updated.setTitle(entry.getTitle());
+            updated.setDescription(entry.getDescription());
+            updated.setDone(entry.isDone());
+
+            try {
+                todoLog.put(updated);
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not update entry " + entry, e);
+            }
+
+            index.update(updated);
+        }
+    }
+
+    @Override
+    public Optional<TodoEntry> findById(UUID id) {
+        return index.findById(id);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return index.existsById(id);
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        synchronized (todoLog) {
+            if (!index.existsById(id)) {
+                return false;
+            }
+
+            try {
+                todoLog.delete(id);
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not delete entry for id " + id, e);
+            }
+
+            return index.deleteById(id);
+        }
+    }
+
+    @Override
+    public int deleteByTitle(String title) {
+        synchronized (todoLog) {
+            List<UUID> ids = index.stream()
+                    .filter(entry -> Objects.equals(title, entry.getTitle()))
+                    .map(TodoEntry::getId)
+                    .collect(Collectors.toList());
+            return deleteAll(ids);
+        }
+    }
+
+    @Override
+    public boolean updateStatus(UUID id, boolean done) {
+        synchronized (todoLog) {
+            Optional<TodoEntry> found = index.findById(id);
+            if (found.isEmpty()) {
+                return false;
+            }
+
+            TodoEntry updated = copyOf(found.get());
+            updated.setDone(done);
+
+            try {
+                todoLog.put(updated);
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not update status for entry " + id, e);
+            }
+
+            return index.updateStatus(id, done);
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<TodoEntry> entries) {
+        synchronized (todoLog) {
+            try {
+                for (TodoEntry entry : entries) {
+                    todoLog.put(entry);
+                    index.save(entry);
+                }
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not save batch of " + entries.size() + " entries", e);
+            }
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<TodoEntry> entries) {
+        synchronized (todoLog) {
+            List<TodoEntry> updated = new ArrayList<>(entries.size());
+            for (TodoEntry entry : entries) {
+                TodoEntry found = index.findById(entry.getId())
+                        .orElseThrow(() -> new RuntimeException(String.format("Unable to find entry with uuid '%s'", entry.getId())));
+                TodoEntry copy = copyOf(found);
+                copy.setTitle(entry.getTitle());
+                copy.setDescription(entry.getDescription());
+                copy.setDone(entry.isDone());
+                updated.add(copy);
+            }
+
+            try {
+                for (TodoEntry entry : updated) {
+                    todoLog.put(entry);
+                    index.update(entry);
+                }
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not update batch of " + entries.size() + " entries", e);
+            }
+        }
+    }
+
+    @Override
+    public int deleteAll(Collection<UUID> ids) {
+        synchronized (todoLog) {
+            List<UUID> existing = ids.stream()
+                    .filter(index::existsById)
+                    .collect(Collectors.toList());
+
+            int deleted = 0;
+            try {
+                for (UUID id : existing) {
+                    todoLog.delete(id);
+                    if (index.deleteById(id)) {
+                        deleted++;
+                    }
+                }
+                sync();
+            } catch (IOException e) {
+                throw new DataAccessException("Could not delete batch of " + ids.size() + " entries", e);
+            }
+
+            return deleted;
+        }
+    }
+
+    @Override
+    public long count() {
+        return index.count();
+    }
+
+    @Override
+    public long countDone() {
+        return index.countDone();
+    }
+
+    @Override
+    public long version() {
+        return index.version();
+    }
+
+    /**
+     * Rewrites the log to the current set of entries when it spans more segments than the configured threshold.
+     */
+    public void compact() {
+        synchronized (todoLog) {
+            if (todoLog.segmentCount() <= configurationProperties.getCompactionThreshold()) {
+                return;
+            }
+
+            try {
+                int segments = todoLog.segmentCount();
+                todoLog.compact(index.list());
+                log.debug(String.format("Compacted todo log from %s segments to %s entries", segments, index.count()));
+            } catch (IOException e) {
+                log.error("Failed to compact todo log", e);
+            }
+        }
+    }
+
+    private void sync() {
+        if (configurationProperties.isForceOnWrite()) {
+            todoLog.force();
+        }
+    }
+
+    private TodoEntry copyOf(TodoEntry entry) {
+        TodoEntry copy = new TodoEntry(entry.getId(), entry.getTitle(), entry.getDescription(), entry.getCreatedAt(), entry.getOrderKey());
+        copy.setDone(entry.isDone());
+        copy.setAttachment(entry.getAttachment());
+        return copy;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        synchronized (todoLog) {
+            todoLog.open(new MmapTodoLog.RecordHandler() {
+                @Override
+                public void put(TodoEntry entry) {
+                    index.save(entry);
+                }
+
+                @Override
+                public void delete(UUID id) {
+                    index.deleteById(id);
+                }
+
+                @Override
+                public void clear() {
+                    index.deleteAll();
+                }
+            });
+        }
+
+        log.info(String.format("Loaded %s todo entries from %s log segments in '%s'",
+                index.count(), todoLog.segmentCount(), configurationProperties.getDirectory()));
+
+        long interval = configurationProperties.getCompactionInterval();
+        if (interval > 0) {
+            compactionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "todo-log-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactionExecutor.scheduleWithFixedDelay(this::compact, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdown();
+        }
+
+        synchronized (todoLog) {
+            todoLog.force();
+        }
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.consol.citrus.samples.todolist.model.Attachment;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+
+/**
+ * Append only log of todo entry modifications stored in memory mapped segment files. Each record is written as
+ * length and CRC32 checksum followed by the record body. A zero length marks the end of the written part of a segment,
+ * a checksum mismatch marks a torn write from a crash, so replay stops at both of them. A record with a valid checksum
+ * that cannot be decoded, e.g. one written by a newer release, fails opening the log, as skipping it would silently
+ * drop the records behind it.
+ *
+ * Segments are named by an increasing sequence number and replayed in that order. Compaction writes a clear record
+ * followed by all live entries to a temporary file, renames it to the next segment and deletes all older segments.
+ * A crash at any point of compaction therefore replays to the same state.
+ *
+ * The log is not thread safe, callers need to synchronize access.
+ */
+class MmapTodoLog {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte CLEAR = 3;
+
+    /** Put record holding the order key, put records written by earlier releases are restored without */
+    private static final byte PUT_ORDERED = 4;
+
+    /** Record header holding body length and checksum */
+    private static final int HEADER_SIZE = 8;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACTION_SUFFIX = ".compact";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    /** Sequence numbers of all segments on disk, the last one is the active segment */
+    private final List<Long> segments = new ArrayList<>();
+
+    private MappedByteBuffer active;
+
+    MmapTodoLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Replays all segments on disk to given handler and opens the last segment for appending.
+     * @param handler
+     * @throws IOException
+     */
+    void open(RecordHandler handler) throws IOException {
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTION_SUFFIX)) {
+                    Files.delete(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                }
+            }
+        }
+        segments.sort(Long::compareTo);
+
+        for (long sequence : segments) {
+            try (FileChannel channel = FileChannel.open(segmentFile(sequence), StandardOpenOption.READ)) {
+                replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), handler, sequence);
+            }
+        }
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            long last = segments.get(segments.size() - 1);
+            active = map(segmentFile(last), 0);
+            active.position(replay(active.duplicate(), null, last));
+            clearTail(active);
+        }
+    }
+
+    /**
+     * Number of segments on disk including the active segment.
+     * @return
+     */
+    int segmentCount() {
+        return segments.size();
+    }
+
+    void put(TodoEntry entry) throws IOException {
+        append(encodePut(entry));
+    }
+
+    void delete(UUID id) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(17);
+        body.put(DELETE);
+        body.putLong(id.getMostSignificantBits());
+        body.putLong(id.getLeastSignificantBits());
+        append(body.array());
+    }
+
+    void clear() throws IOException {
+        append(new byte[] { CLEAR });
+    }
+
+    /**
+     * Flushes written records of the active segment to disk.
+     */
+    void force() {
+        active.force();
+    }
+
+    /**
+     * Rewrites the log so that it only holds given live entries. Afterwards all older segments are deleted.
+     * @param entries
+     * @throws IOException
+     */
+    void compact(Collection<TodoEntry> entries) throws IOException {
+        List<byte[]> records = new ArrayList<>(entries.size() + 1);
+        records.add(new byte[] { CLEAR });
+        long size = 0L;
+        for (TodoEntry entry : entries) {
+            records.add(encodePut(entry));
+        }
+        for (byte[] record : records) {
+            size += HEADER_SIZE + record.length;
+        }
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Live entries exceed maximum segment size");
+        }
+
+        long sequence = nextSequence();
+        Path compacted = directory.resolve(segmentFileName(sequence) + COMPACTION_SUFFIX);
+        MappedByteBuffer buffer = map(compacted, Math.max(segmentSize, (int) size));
+        for (byte[] record : records) {
+            write(buffer, record);
+        }
+        buffer.force();
+
+        Files.move(compacted, segmentFile(sequence), StandardCopyOption.ATOMIC_MOVE);
+
+        for (long obsolete : segments) {
+            Files.deleteIfExists(segmentFile(obsolete));
+        }
+        segments.clear();
+        segments.add(sequence);
+        active = buffer;
+    }
+
+    private void append(byte[] body) throws IOException {
+        if (HEADER_SIZE + body.length > segmentSize) {
+            throw new IOException(String.format("Record of %s bytes exceeds segment size %s", body.length, segmentSize));
+        }
+
+        if (active.remaining() < HEADER_SIZE + body.length) {
+            roll();
+        }
+
+        write(active, body);
+    }
+
+    private void write(ByteBuffer buffer, byte[] body) {
+        CRC32 checksum = new CRC32();
+        checksum.update(body);
+
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.putInt((int) checksum.getValue());
+        buffer.put(body);
+        // length is written last so a record only becomes visible to replay once it is complete
+        buffer.putInt(start, body.length);
+    }
+
+    /**
+     * Seals the active segment and starts a new one.
+     */
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+
+        long sequence = nextSequence();
+        active = map(segmentFile(sequence), segmentSize);
+        segments.add(sequence);
+    }
+
+    /**
+     * Reads all complete records from given buffer and passes them to the handler.
+     * @return position after the last complete record.
+     * @throws IOException when a complete record cannot be decoded.
+     */
+    private int replay(ByteBuffer buffer, RecordHandler handler, long sequence) throws IOException {
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int expected = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return start;
+            }
+
+            byte[] body = new byte[length];
+            buffer.get(body);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(body);
+            if ((int) checksum.getValue() != expected) {
+                return start;
+            }
+
+            if (handler != null) {
+                try {
+                    decode(ByteBuffer.wrap(body), handler);
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    throw new IOException(String.format("Unreadable record at position %s of segment '%s'", start, segmentFileName(sequence)), e);
+                }
+            }
+        }
+
+        return buffer.position();
+    }
+
+    private void decode(ByteBuffer body, RecordHandler handler) {
+        byte type = body.get();
+        switch (type) {
+            case PUT:
+            case PUT_ORDERED:
+                UUID id = new UUID(body.getLong(), body.getLong());
+                long createdAt = body.getLong();
+                long orderKey = type == PUT_ORDERED ? body.getLong() : TodoEntry.orderKeyOf(createdAt);
+                boolean done = body.get() == 1;
+                TodoEntry entry = new TodoEntry(id, readString(body), readString(body), createdAt, orderKey);
+                entry.setDone(done);
+                if (body.get() == 1) {
+                    Attachment attachment = new Attachment();
+                    attachment.setCid(readString(body));
+                    attachment.setContentType(readString(body));
+                    attachment.setData(readString(body));
+                    entry.setAttachment(attachment);
+                }
+                handler.put(entry);
+                break;
+            case DELETE:
+                handler.delete(new UUID(body.getLong(), body.getLong()));
+                break;
+            case CLEAR:
+                handler.clear();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record type " + type);
+        }
+    }
+
+    private byte[] encodePut(TodoEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT_ORDERED);
+        out.writeLong(entry.getId().getMostSignificantBits());
+        out.writeLong(entry.getId().getLeastSignificantBits());
+        out.writeLong(entry.getCreatedAt());
+        out.writeLong(entry.getOrderKey());
+        out.writeBoolean(entry.isDone());
+        writeString(out, entry.getTitle());
+        writeString(out, entry.getDescription());
+
+        Attachment attachment = entry.getAttachment();
+        out.writeBoolean(attachment != null);
+        if (attachment != null) {
+            writeString(out, attachment.getCid());
+            writeString(out, attachment.getContentType());
+            writeString(out, attachment.getData());
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Zeroes leftovers of a torn record behind the current position, so they cannot be mistaken for
+     * records once new records have been appended in front of them. The length of a torn record is
+     * usually still zero, so the whole remaining region is checked. Only non zero bytes are written
+     * to avoid dirtying pages of a clean tail.
+     */
+    private void clearTail(MappedByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    private MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size > 0 ? size : channel.size());
+        }
+    }
+
+    private long nextSequence() {
+        return segments.isEmpty() ? 1L : segments.get(segments.size() - 1) + 1;
+    }
+
+    private Path segmentFile(long sequence) {
+        return directory.resolve(segmentFileName(sequence));
+    }
+
+    private String segmentFileName(long sequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Receives records read from the log during replay.
+     */
+    interface RecordHandler {
+        void put(TodoEntry entry);
+
+        void delete(UUID id);
+
+        void clear();
+    }
+}
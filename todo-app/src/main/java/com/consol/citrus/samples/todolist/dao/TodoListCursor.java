@@ -0,0 +1,79 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+
+/**
+ * Position in the creation ordered list of todo entries. Pages are read starting after the entry identified by
+ * the cursor, so the cursor is independent of the number of entries that have been read before.
+ */
+public class TodoListCursor {
+
+    private final long orderKey;
+    private final UUID id;
+
+    public TodoListCursor(long orderKey, UUID id) {
+        this.orderKey = orderKey;
+        this.id = id;
+    }
+
+    /**
+     * Creates cursor pointing to given entry.
+     * @param entry
+     * @return
+     */
+    public static TodoListCursor of(TodoEntry entry) {
+        return new TodoListCursor(entry.getOrderKey(), entry.getId());
+    }
+
+    /**
+     * Decodes cursor from its opaque string representation.
+     * @param value
+     * @return
+     */
+    public static TodoListCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new TodoListCursor(Long.parseLong(decoded.substring(0, separator)), UUID.fromString(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(String.format("Invalid todo list cursor '%s'", value), e);
+        }
+    }
+
+    /**
+     * Encodes this cursor to an opaque string that is safe to use as request parameter.
+     * @return
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((orderKey + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long getOrderKey() {
+        return orderKey;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
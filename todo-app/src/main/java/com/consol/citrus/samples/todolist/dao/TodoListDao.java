@@ -16,7 +16,12 @@
 
 package com.consol.citrus.samples.todolist.dao;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 
@@ -31,9 +36,109 @@ public interface TodoListDao {
 
     Set<TodoEntry> list(int limit);
 
+    /**
+     * Lazily reads all entries in creation order. The returned stream holds resources of the underlying storage
+     * and must be closed after use.
+     * @return
+     */
+    Stream<TodoEntry> stream();
+
+    /**
+     * Lists entries in creation order starting right after the entry identified by given cursor.
+     * @param after cursor of the last entry already read, or null to start with the first entry.
+     * @param limit maximum number of entries to return.
+     * @return
+     */
+    List<TodoEntry> list(TodoListCursor after, int limit);
+
+    /**
+     * Lists entries created within given time range in creation order. The range is matched on the order key, so
+     * entries created in a millisecond with more entries than the order key sequence holds may show up in the
+     * following millisecond.
+     * @param from creation time in milliseconds, inclusive.
+     * @param to creation time in milliseconds, exclusive.
+     * @return
+     */
+    List<TodoEntry> listCreated(long from, long to);
+
     void delete(TodoEntry entry);
 
     void deleteAll();
 
     void update(TodoEntry entry);
+
+    /**
+     * Find single entry by its id.
+     * @param id
+     * @return the entry or empty optional when no such entry exists.
+     */
+    Optional<TodoEntry> findById(UUID id);
+
+    /**
+     * Checks if entry with given id exists.
+     * @param id
+     * @return
+     */
+    boolean existsById(UUID id);
+
+    /**
+     * Delete single entry by its id.
+     * @param id
+     * @return true if the entry has been deleted, false when no such entry exists.
+     */
+    boolean deleteById(UUID id);
+
+    /**
+     * Delete all entries with given title.
+     * @param title
+     * @return number of deleted entries.
+     */
+    int deleteByTitle(String title);
+
+    /**
+     * Sets the done status of a single entry.
+     * @param id
+     * @param done
+     * @return true if the entry has been updated, false when no such entry exists.
+     */
+    boolean updateStatus(UUID id, boolean done);
+
+    /**
+     * Saves all given entries in one single bulk operation.
+     * @param entries
+     */
+    void saveAll(Collection<TodoEntry> entries);
+
+    /**
+     * Updates all given entries in one single bulk operation.
+     * @param entries
+     */
+    void updateAll(Collection<TodoEntry> entries);
+
+    /**
+     * Deletes all entries with given ids in one single bulk operation.
+     * @param ids
+     * @return number of deleted entries.
+     */
+    int deleteAll(Collection<UUID> ids);
+
+    /**
+     * Gets total number of entries.
+     * @return
+     */
+    long count();
+
+    /**
+     * Gets number of entries that are marked as done.
+     * @return
+     */
+    long countDone();
+
+    /**
+     * Gets modification version of the stored entries. The version changes after every write once the write is
+     * visible to readers, so equal versions guarantee equal content. Only writes through this application instance
+     * are covered. Reading the version does not access the underlying store.
+     * @return
+     */
+    long version();
 }
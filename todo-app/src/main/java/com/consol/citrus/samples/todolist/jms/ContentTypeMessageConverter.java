@@ -0,0 +1,64 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.jms;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.MessageType;
+
+/**
+ * Message converter selecting the payload format by the content type property of incoming messages. Messages with
+ * Smile content type are read from a bytes message in the binary Smile format, all other messages are read as JSON
+ * text. Outgoing messages are always written as JSON text messages.
+ */
+public class ContentTypeMessageConverter implements MessageConverter {
+
+    private final MappingJackson2MessageConverter jsonConverter;
+    private final MappingJackson2MessageConverter smileConverter;
+
+    public ContentTypeMessageConverter(String typeIdPropertyName) {
+        jsonConverter = new MappingJackson2MessageConverter();
+        jsonConverter.setTargetType(MessageType.TEXT);
+        jsonConverter.setTypeIdPropertyName(typeIdPropertyName);
+
+        smileConverter = new MappingJackson2MessageConverter();
+        smileConverter.setObjectMapper(new ObjectMapper(new SmileFactory()));
+        smileConverter.setTargetType(MessageType.BYTES);
+        smileConverter.setTypeIdPropertyName(typeIdPropertyName);
+    }
+
+    @Override
+    public Message toMessage(Object object, Session session) throws JMSException, MessageConversionException {
+        return jsonConverter.toMessage(object, session);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws JMSException, MessageConversionException {
+        if (TodoEntryCodec.isSmile(message.getStringProperty(TodoEntryCodec.CONTENT_TYPE_HEADER))) {
+            return smileConverter.fromMessage(message);
+        }
+
+        return jsonConverter.fromMessage(message);
+    }
+}
@@ -18,37 +18,83 @@ package com.consol.citrus.samples.todolist.jms;
 
 import java.util.Collections;
 
+import com.consol.citrus.samples.todolist.metrics.TodoMetrics;
+import com.consol.citrus.samples.todolist.service.TodoListService;
 import jakarta.jms.ConnectionFactory;
+import org.apache.activemq.artemis.core.config.FileDeploymentManager;
+import org.apache.activemq.artemis.core.config.impl.FileConfiguration;
 import org.apache.activemq.artemis.core.config.impl.SecurityConfiguration;
+import org.apache.activemq.artemis.core.server.JournalType;
 import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.core.settings.impl.AddressFullMessagePolicy;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
 import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
 import org.apache.activemq.artemis.spi.core.security.ActiveMQJAASSecurityManager;
 import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManager;
 import org.apache.activemq.artemis.spi.core.security.jaas.InVMLoginModule;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jms.annotation.EnableJms;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.jms.config.JmsListenerContainerFactory;
+import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.jms.core.JmsTemplate;
-import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
 import org.springframework.jms.support.converter.MessageConverter;
-import org.springframework.jms.support.converter.MessageType;
 
 /**
+ * Unless disabled the broker connection is shared through a caching connection factory that keeps sessions and
+ * producers open, so the template and the listener replies do not create them for each message.
+ *
+ * The embedded broker accepts tcp and in-VM connections, clients use the transport configured in todo.jms.transport.
+ * Journal and paging settings of broker.xml are overwritten with the todo.jms.journal properties.
+ *
+ * Incoming messages are read as JSON text or, when marked with the Smile content type, as binary Smile bytes messages.
+ *
+ * In batch mode the inbound queue is consumed by concurrent transacted batch consumers that commit a number of
+ * messages at once instead of acknowledging every single message.
+ *
  * @author Christoph Deppisch
  */
 @Configuration
 @EnableJms
 @ConditionalOnProperty(prefix = "todo.jms", value = "enabled")
+@EnableConfigurationProperties(JmsConfigurationProperties.class)
 public class JmsApplicationConfig {
 
     @Bean(initMethod = "start", destroyMethod = "stop")
     @ConditionalOnProperty(prefix = "todo.jms", value = "broker", havingValue = "enabled", matchIfMissing = true)
-    public EmbeddedActiveMQ messageBroker() {
+    public EmbeddedActiveMQ messageBroker(JmsConfigurationProperties configurationProperties) {
+        FileConfiguration configuration = new FileConfiguration();
+        try {
+            FileDeploymentManager deploymentManager = new FileDeploymentManager("broker.xml");
+            deploymentManager.addDeployable(configuration);
+            deploymentManager.readConfiguration();
+
+            configuration.addAcceptorConfiguration("in-vm", "vm://0");
+        } catch (Exception e) {
+            throw new BeanCreationException("Failed to read embedded message broker configuration", e);
+        }
+
+        JmsConfigurationProperties.Journal journal = configurationProperties.getJournal();
+        configuration.setPersistenceEnabled(journal.isPersistenceEnabled());
+        configuration.setJournalType(JournalType.valueOf(journal.getType()));
+        configuration.setJournalDirectory(journal.getDirectory());
+        configuration.setJournalSyncTransactional(journal.isSyncTransactional());
+        configuration.setJournalSyncNonTransactional(journal.isSyncNonTransactional());
+        configuration.setPagingDirectory(journal.getPagingDirectory());
+        AddressSettings addressSettings = configuration.getAddressSettings().getOrDefault("#", new AddressSettings());
+        configuration.addAddressSetting("#", addressSettings
+                .setMaxSizeBytes(journal.getMaxSizeBytes())
+                .setPageSizeBytes(journal.getPageSizeBytes())
+                .setAddressFullMessagePolicy(AddressFullMessagePolicy.PAGE));
+
         EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
         broker.setSecurityManager(securityManager());
         return broker;
     }
@@ -69,32 +115,81 @@ public class JmsApplicationConfig {
 
     @Bean
     @DependsOn("messageBroker")
-    public ConnectionFactory activeMqConnectionFactory() {
-        return new ActiveMQConnectionFactory("tcp://localhost:61616", "citrus", "citrus");
+    public ConnectionFactory activeMqConnectionFactory(JmsConfigurationProperties configurationProperties) {
+        ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(configurationProperties.getBrokerUrl(), "citrus", "citrus");
+        connectionFactory.setConsumerWindowSize(configurationProperties.getConsumerWindowSize());
+        return connectionFactory;
     }
 
     @Bean
-    public JmsTemplate jmsTemplate() {
+    @Primary
+    @ConditionalOnProperty(prefix = "todo.jms.cache", value = "enabled", matchIfMissing = true)
+    public CachingConnectionFactory cachingConnectionFactory(JmsConfigurationProperties configurationProperties) {
+        JmsConfigurationProperties.Cache cache = configurationProperties.getCache();
+
+        CachingConnectionFactory connectionFactory = new CachingConnectionFactory(activeMqConnectionFactory(configurationProperties));
+        connectionFactory.setSessionCacheSize(cache.getSessionCacheSize());
+        connectionFactory.setCacheProducers(cache.isProducers());
+        connectionFactory.setCacheConsumers(cache.isConsumers());
+        return connectionFactory;
+    }
+
+    @Bean
+    public JmsTemplate jmsTemplate(ConnectionFactory connectionFactory) {
         JmsTemplate jmsTemplate = new JmsTemplate();
-        jmsTemplate.setConnectionFactory(activeMqConnectionFactory());
+        jmsTemplate.setConnectionFactory(connectionFactory);
         jmsTemplate.setMessageConverter(jacksonJmsMessageConverter());
         return jmsTemplate;
     }
 
     @Bean
-    public JmsListenerContainerFactory<?> jmsListenerContainerFactory(ConnectionFactory connectionFactory) {
+    public JmsListenerContainerFactory<?> jmsListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                      JmsConfigurationProperties configurationProperties) {
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(jacksonJmsMessageConverter());
+        factory.setPubSubDomain(false);
+        factory.setConcurrency(configurationProperties.getConcurrency());
+        factory.setReceiveTimeout(configurationProperties.getReceiveTimeout());
+        return factory;
+    }
+
+    /**
+     * Listener container factory for the inbound queue. Listener containers are not started in batch mode
+     * as the inbound queue is consumed by the transacted batch consumer instead.
+     */
+    @Bean
+    public JmsListenerContainerFactory<?> jmsInboundListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                             JmsConfigurationProperties configurationProperties) {
         DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(jacksonJmsMessageConverter());
         factory.setPubSubDomain(false);
+        factory.setConcurrency(configurationProperties.getConcurrency());
+        factory.setReceiveTimeout(configurationProperties.getReceiveTimeout());
+        factory.setAutoStartup(!configurationProperties.getBatch().isEnabled());
         return factory;
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "todo.jms.batch", value = "enabled")
+    public TodoJmsBatchConsumer todoJmsBatchConsumer(TodoListService todoListService, TodoMetrics todoMetrics,
+                                                     JmsConfigurationProperties configurationProperties) {
+        String concurrency = configurationProperties.getConcurrency();
+        int consumers = Integer.parseInt(concurrency.substring(concurrency.indexOf('-') + 1).trim());
+
+        return new TodoJmsBatchConsumer(activeMqConnectionFactory(configurationProperties), jacksonJmsMessageConverter(), todoListService, todoMetrics,
+                "jms.todo.inbound", "DLQ", consumers, configurationProperties.getBatch().getSize(), configurationProperties.getReceiveTimeout());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "todo.jms.report", value = "mode", havingValue = "incremental")
+    public TodoJmsChangeFeed todoJmsChangeFeed(TodoJmsReportProducer reportProducer) {
+        return new TodoJmsChangeFeed(reportProducer);
+    }
+
     @Bean
     public MessageConverter jacksonJmsMessageConverter() {
-        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
-        converter.setTargetType(MessageType.TEXT);
-        converter.setTypeIdPropertyName("_type");
-        return converter;
+        return new ContentTypeMessageConverter("_type");
     }
 }
@@ -0,0 +1,613 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.jms;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the Jms integration.
+ */
+@ConfigurationProperties(prefix = "todo.jms")
+public class JmsConfigurationProperties {
+
+    /**
+     * Enables the Jms integration.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Transport used by clients to connect to the broker, either tcp or vm. The in-VM transport is only
+     * available with the embedded broker and avoids TCP framing and loopback overhead.
+     */
+    private String transport = "tcp";
+
+    /**
+     * Journal settings of the embedded broker.
+     */
+    private Journal journal = new Journal();
+
+    /**
+     * Report settings.
+     */
+    private Report report = new Report();
+
+    /**
+     * Connection, session and producer caching.
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Number of concurrent consumers per listener, either a fixed number or a range like 3-10.
+     */
+    private String concurrency = "1";
+
+    /**
+     * Time in milliseconds a consumer waits for the next message.
+     */
+    private long receiveTimeout = 1000L;
+
+    /**
+     * Size in bytes of messages buffered by each consumer ahead of processing, 0 disables buffering and -1 means no limit.
+     */
+    private int consumerWindowSize = 1024 * 1024;
+
+    /**
+     * Transacted batch consumption settings.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * Gets the enabled.
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the transport.
+     *
+     * @return
+     */
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * Sets the transport.
+     *
+     * @param transport
+     */
+    public void setTransport(String transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Gets the broker url matching the configured transport.
+     *
+     * @return
+     */
+    public String getBrokerUrl() {
+        return "vm".equals(transport) ? "vm://0" : "tcp://localhost:61616";
+    }
+
+    /**
+     * Gets the journal.
+     *
+     * @return
+     */
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the journal.
+     *
+     * @param journal
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the report.
+     *
+     * @return
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    /**
+     * Sets the report.
+     *
+     * @param report
+     */
+    public void setReport(Report report) {
+        this.report = report;
+    }
+
+    /**
+     * Gets the cache.
+     *
+     * @return
+     */
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the cache.
+     *
+     * @param cache
+     */
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the concurrency.
+     *
+     * @return
+     */
+    public String getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Sets the concurrency.
+     *
+     * @param concurrency
+     */
+    public void setConcurrency(String concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Gets the receiveTimeout.
+     *
+     * @return
+     */
+    public long getReceiveTimeout() {
+        return receiveTimeout;
+    }
+
+    /**
+     * Sets the receiveTimeout.
+     *
+     * @param receiveTimeout
+     */
+    public void setReceiveTimeout(long receiveTimeout) {
+        this.receiveTimeout = receiveTimeout;
+    }
+
+    /**
+     * Gets the consumerWindowSize.
+     *
+     * @return
+     */
+    public int getConsumerWindowSize() {
+        return consumerWindowSize;
+    }
+
+    /**
+     * Sets the consumerWindowSize.
+     *
+     * @param consumerWindowSize
+     */
+    public void setConsumerWindowSize(int consumerWindowSize) {
+        this.consumerWindowSize = consumerWindowSize;
+    }
+
+    /**
+     * Gets the batch.
+     *
+     * @return
+     */
+    public Batch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Sets the batch.
+     *
+     * @param batch
+     */
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Reports published to the report queue.
+     */
+    public static class Report {
+
+        /**
+         * Report mode, either snapshot to publish reports on request only or incremental to additionally
+         * publish an event for each change of the todo list.
+         */
+        private String mode = "snapshot";
+
+        /**
+         * Gets the mode.
+         *
+         * @return
+         */
+        public String getMode() {
+            return mode;
+        }
+
+        /**
+         * Sets the mode.
+         *
+         * @param mode
+         */
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+    }
+
+    /**
+     * Caching of the broker connection, its sessions and message producers and consumers.
+     */
+    public static class Cache {
+
+        /**
+         * Share a single broker connection and cache sessions instead of opening new ones for each operation.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of sessions cached per acknowledge mode.
+         */
+        private int sessionCacheSize = 10;
+
+        /**
+         * Cache message producers per session and destination.
+         */
+        private boolean producers = true;
+
+        /**
+         * Cache message consumers per session and destination.
+         */
+        private boolean consumers = false;
+
+        /**
+         * Gets the enabled.
+         *
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets the enabled.
+         *
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the sessionCacheSize.
+         *
+         * @return
+         */
+        public int getSessionCacheSize() {
+            return sessionCacheSize;
+        }
+
+        /**
+         * Sets the sessionCacheSize.
+         *
+         * @param sessionCacheSize
+         */
+        public void setSessionCacheSize(int sessionCacheSize) {
+            this.sessionCacheSize = sessionCacheSize;
+        }
+
+        /**
+         * Gets the producers.
+         *
+         * @return
+         */
+        public boolean isProducers() {
+            return producers;
+        }
+
+        /**
+         * Sets the producers.
+         *
+         * @param producers
+         */
+        public void setProducers(boolean producers) {
+            this.producers = producers;
+        }
+
+        /**
+         * Gets the consumers.
+         *
+         * @return
+         */
+        public boolean isConsumers() {
+            return consumers;
+        }
+
+        /**
+         * Sets the consumers.
+         *
+         * @param consumers
+         */
+        public void setConsumers(boolean consumers) {
+            this.consumers = consumers;
+        }
+    }
+
+    /**
+     * Transacted batch consumption of the inbound queue.
+     */
+    public static class Batch {
+
+        /**
+         * Receive messages in local transactions of several messages that are stored with a single bulk write.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of messages committed in one transaction.
+         */
+        private int size = 100;
+
+        /**
+         * Gets the enabled.
+         *
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets the enabled.
+         *
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the size.
+         *
+         * @return
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Sets the size.
+         *
+         * @param size
+         */
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * Persistence and paging of the embedded broker.
+     */
+    public static class Journal {
+
+        /**
+         * Persist messages in the journal.
+         */
+        private boolean persistenceEnabled = false;
+
+        /**
+         * Journal implementation, one of NIO, ASYNCIO or MAPPED.
+         */
+        private String type = "NIO";
+
+        /**
+         * Directory holding the journal files.
+         */
+        private String directory = "target/artemis/journal";
+
+        /**
+         * Wait for the journal to be synced to disk on transaction commit.
+         */
+        private boolean syncTransactional = true;
+
+        /**
+         * Wait for the journal to be synced to disk on non transactional sends and acknowledgements.
+         */
+        private boolean syncNonTransactional = true;
+
+        /**
+         * Size in bytes an address may use in memory before messages are paged to disk, -1 disables paging.
+         */
+        private long maxSizeBytes = -1L;
+
+        /**
+         * Size in bytes of a single page file.
+         */
+        private int pageSizeBytes = 10 * 1024 * 1024;
+
+        /**
+         * Directory holding the page files.
+         */
+        private String pagingDirectory = "target/artemis/paging";
+
+        /**
+         * Gets the persistenceEnabled.
+         *
+         * @return
+         */
+        public boolean isPersistenceEnabled() {
+            return persistenceEnabled;
+        }
+
+        /**
+         * Sets the persistenceEnabled.
+         *
+         * @param persistenceEnabled
+         */
+        public void setPersistenceEnabled(boolean persistenceEnabled) {
+            this.persistenceEnabled = persistenceEnabled;
+        }
+
+        /**
+         * Gets the type.
+         *
+         * @return
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Sets the type.
+         *
+         * @param type
+         */
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        /**
+         * Gets the directory.
+         *
+         * @return
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets the directory.
+         *
+         * @param directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Gets the syncTransactional.
+         *
+         * @return
+         */
+        public boolean isSyncTransactional() {
+            return syncTransactional;
+        }
+
+        /**
+         * Sets the syncTransactional.
+         *
+         * @param syncTransactional
+         */
+        public void setSyncTransactional(boolean syncTransactional) {
+            this.syncTransactional = syncTransactional;
+        }
+
+        /**
+         * Gets the syncNonTransactional.
+         *
+         * @return
+         */
+        public boolean isSyncNonTransactional() {
+            return syncNonTransactional;
+        }
+
+        /**
+         * Sets the syncNonTransactional.
+         *
+         * @param syncNonTransactional
+         */
+        public void setSyncNonTransactional(boolean syncNonTransactional) {
+            this.syncNonTransactional = syncNonTransactional;
+        }
+
+        /**
+         * Gets the maxSizeBytes.
+         *
+         * @return
+         */
+        public long getMaxSizeBytes() {
+            return maxSizeBytes;
+        }
+
+        /**
+         * Sets the maxSizeBytes.
+         *
+         * @param maxSizeBytes
+         */
+        public void setMaxSizeBytes(long maxSizeBytes) {
+            this.maxSizeBytes = maxSizeBytes;
+        }
+
+        /**
+         * Gets the pageSizeBytes.
+         *
+         * @return
+         */
+        public int getPageSizeBytes() {
+            return pageSizeBytes;
+        }
+
+        /**
+         * Sets the pageSizeBytes.
+         *
+         * @param pageSizeBytes
+         */
+        public void setPageSizeBytes(int pageSizeBytes) {
+            this.pageSizeBytes = pageSizeBytes;
+        }
+
+        /**
+         * Gets the pagingDirectory.
+         *
+         * @return
+         */
+        public String getPagingDirectory() {
+            return pagingDirectory;
+        }
+
+        /**
+         * Sets the pagingDirectory.
+         *
+         * @param pagingDirectory
+         */
+        public void setPagingDirectory(String pagingDirectory) {
+            this.pagingDirectory = pagingDirectory;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.consol.citrus.samples.todolist.metrics.TodoMetrics;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.consol.citrus.samples.todolist.service.TodoListService;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+
+/**
+ * Consumes the inbound queue in local transactions of up to batch size messages. All entries of a transaction are
+ * stored with a single bulk write before the session is committed, so messages are acknowledged only once they have
+ * been stored. When the bulk write fails the entries are stored one by one and only the messages whose entry cannot
+ * be stored are sent to the dead letter queue within the same transaction. When no entry of the batch can be stored
+ * the session is rolled back and the broker redelivers the messages after its redelivery delay. Messages that cannot
+ * be converted to todo entries are sent to the dead letter queue as well.
+ *
+ * Each consumer runs on its own thread with its own connection and session. A batch is stored in the trace of its
+ * first message carrying a trace id.
+ */
+public class TodoJmsBatchConsumer implements SmartLifecycle {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(TodoJmsBatchConsumer.class);
+
+    /** Delay in milliseconds before a consumer reconnects after a broker failure */
+    private static final long RECOVERY_INTERVAL = 5000L;
+
+    private final ConnectionFactory connectionFactory;
+    private final MessageConverter messageConverter;
+    private final TodoListService todoListService;
+    private final TodoMetrics metrics;
+    private final String destination;
+    private final String deadLetterDestination;
+    private final int consumers;
+    private final int batchSize;
+    private final long receiveTimeout;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public TodoJmsBatchConsumer(ConnectionFactory connectionFactory, MessageConverter messageConverter, TodoListService todoListService,
+                                TodoMetrics metrics, String destination, String deadLetterDestination, int consumers, int batchSize,
+                                long receiveTimeout) {
+        this.connectionFactory = connectionFactory;
+        this.messageConverter = messageConverter;
+        this.todoListService = todoListService;
+        this.metrics = metrics;
+        this.destination = destination;
+        this.deadLetterDestination = deadLetterDestination;
+        this.consumers = consumers;
+        this.batchSize = batchSize;
+        this.receiveTimeout = receiveTimeout;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(consumers, runnable -> {
+            Thread thread = new Thread(runnable, "todo-jms-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(this::consume);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(receiveTimeout + RECOVERY_INTERVAL, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void consume() {
+        while (running) {
+            try (Connection connection = connectionFactory.createConnection();
+                 Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+                 MessageConsumer consumer = session.createConsumer(session.createQueue(destination));
+                 MessageProducer deadLetterProducer = session.createProducer(session.createQueue(deadLetterDestination))) {
+                connection.start();
+
+                while (running) {
+                    receiveBatch(session, consumer, deadLetterProducer);
+                }
+            } catch (JMSException e) {
+                if (running) {
+                    log.warn(String.format("Batch consumer on '%s' failed, reconnecting in %s ms", destination, RECOVERY_INTERVAL), e);
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void receiveBatch(Session session, MessageConsumer consumer, MessageProducer deadLetterProducer) throws JMSException {
+        List<TodoEntry> entries = new ArrayList<>(batchSize);
+        List<Message> messages = new ArrayList<>(batchSize);
+        int received = 0;
+        String traceId = null;
+
+        Message message = consumer.receive(receiveTimeout);
+        while (message != null) {
+            received++;
+            metrics.recordLag("jms", message.getJMSTimestamp());
+            if (traceId == null) {
+                traceId = message.getStringProperty(TraceContext.TRACE_ID);
+            }
+
+            try {
+                entries.add((TodoEntry) messageConverter.fromMessage(message));
+                messages.add(message);
+            } catch (MessageConversionException | ClassCastException e) {
+                log.error(String.format("Failed to create todo entry from Jms message %s, moving it to '%s'",
+                        message.getJMSMessageID(), deadLetterDestination), e);
+                deadLetterProducer.send(message);
+            }
+
+            message = received < batchSize ? consumer.receiveNoWait() : null;
+        }
+
+        if (received == 0) {
+            return;
+        }
+
+        try (TraceContext.Scope scope = TraceContext.open(traceId)) {
+            if (!entries.isEmpty()) {
+                metrics.record("todo.listener", "jms.batch", () -> todoListService.addEntries(entries));
+            }
+        } catch (RuntimeException e) {
+            log.warn(String.format("Failed to store batch of %s todo entries, storing entries one by one", entries.size()), e);
+            if (!addEach(entries, messages, deadLetterProducer, traceId)) {
+                session.rollback();
+                return;
+            }
+        }
+
+        session.commit();
+    }
+
+    /**
+     * Stores entries one by one after a failed bulk write and sends the messages of entries that cannot be stored to
+     * the dead letter queue.
+     * @return false when none of the entries could be stored, the batch should be rolled back then.
+     */
+    private boolean addEach(List<TodoEntry> entries, List<Message> messages, MessageProducer deadLetterProducer,
+                            String traceId) throws JMSException {
+        List<Message> failed = new ArrayList<>();
+        try (TraceContext.Scope scope = TraceContext.open(traceId)) {
+            for (int i = 0; i < entries.size(); i++) {
+                TodoEntry entry = entries.get(i);
+                try {
+                    metrics.record("todo.listener", "jms.receiveTodo", () -> todoListService.addEntry(entry));
+                } catch (RuntimeException e) {
+                    log.error(String.format("Failed to store todo entry from Jms message %s", messages.get(i).getJMSMessageID()), e);
+                    failed.add(messages.get(i));
+                }
+            }
+        }
+
+        if (failed.size() == entries.size()) {
+            log.error(String.format("Failed to store any of %s todo entries, rolling back", entries.size()));
+            return false;
+        }
+
+        for (Message message : failed) {
+            log.warn(String.format("Moving Jms message %s to '%s'", message.getJMSMessageID(), deadLetterDestination));
+            deadLetterProducer.send(message);
+        }
+
+        return true;
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RECOVERY_INTERVAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
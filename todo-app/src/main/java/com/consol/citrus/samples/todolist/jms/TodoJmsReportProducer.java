@@ -2,9 +2,11 @@ package com.consol.citrus.samples.todolist.jms;
 
 import java.util.List;
 
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
+import com.consol.citrus.samples.todolist.model.TodoChangeEvent;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.jms.TextMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -21,19 +23,51 @@ public class TodoJmsReportProducer {
     @Autowired
     private JmsTemplate jmsTemplate;
 
+    @Autowired
+    private TodoEntryCodec codec;
+
     /**
      * Send entries to Jms queue.
      */
     public void sendReport(List<TodoEntry> entries) {
         try {
-            String jsonPayload = new ObjectMapper().writeValueAsString(entries);
-            jmsTemplate.send("jms.todo.report", session -> {
-                TextMessage message = session.createTextMessage(jsonPayload);
-                message.setStringProperty("_type", TodoEntry.class.getName());
-                return message;
-            });
+            send(codec.writeEntries(entries), TodoEntry.class, "done");
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to send Jms todo report", e);
         }
     }
+
+    /**
+     * Send all entries to Jms queue so consumers of the change feed can resync their state.
+     */
+    public void sendSnapshot(List<TodoEntry> entries) {
+        try {
+            send(codec.writeEntries(entries), TodoEntry.class, "snapshot");
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to send Jms todo snapshot", e);
+        }
+    }
+
+    /**
+     * Send single change event to Jms queue.
+     */
+    public void sendChange(TodoChangeEvent event) {
+        try {
+            send(codec.writeEvent(event), TodoChangeEvent.class, "change");
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to send Jms todo change event", e);
+        }
+    }
+
+    private void send(String jsonPayload, Class<?> type, String report) {
+        jmsTemplate.send("jms.todo.report", session -> {
+            TextMessage message = session.createTextMessage(jsonPayload);
+            message.setStringProperty("_type", type.getName());
+            message.setStringProperty("report", report);
+            if (TraceContext.current() != null) {
+                message.setStringProperty(TraceContext.TRACE_ID, TraceContext.current());
+            }
+            return message;
+        });
+    }
 }
@@ -16,11 +16,15 @@
 
 package com.consol.citrus.samples.todolist.jms;
 
+import com.consol.citrus.samples.todolist.metrics.TodoMetrics;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import com.consol.citrus.samples.todolist.service.TodoListService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.stereotype.Component;
 
@@ -34,16 +38,31 @@ public class TodoJmsResource {
     @Autowired
     private TodoListService todoListService;
 
-    @JmsListener(destination = "jms.todo.inbound", containerFactory = "jmsListenerContainerFactory")
-    public void receiveTodo(TodoEntry todo) {
-        todoListService.addEntry(todo);
+    @Autowired
+    private TodoMetrics metrics;
+
+    @JmsListener(destination = "jms.todo.inbound", containerFactory = "jmsInboundListenerContainerFactory")
+    public void receiveTodo(TodoEntry todo,
+                            @Header(name = TraceContext.TRACE_ID, required = false) String traceId,
+                            @Header(name = JmsHeaders.TIMESTAMP, required = false) Long timestamp) {
+        receive("jms.receiveTodo", todo, traceId, timestamp);
     }
 
     @JmsListener(destination = "jms.todo.inbound.sync", containerFactory = "jmsListenerContainerFactory")
     @SendTo("jms.todo.inbound.sync.reply")
-    public String receiveSynchronousTodo(TodoEntry todo) {
-        receiveTodo(todo);
+    public String receiveSynchronousTodo(TodoEntry todo,
+                                         @Header(name = TraceContext.TRACE_ID, required = false) String traceId,
+                                         @Header(name = JmsHeaders.TIMESTAMP, required = false) Long timestamp) {
+        receive("jms.receiveSynchronousTodo", todo, traceId, timestamp);
         return "Message received";
     }
 
+    private void receive(String operation, TodoEntry todo, String traceId, Long timestamp) {
+        metrics.recordLag("jms", timestamp != null ? timestamp : 0L);
+
+        try (TraceContext.Scope scope = TraceContext.open(traceId)) {
+            metrics.record("todo.listener", operation, () -> todoListService.addEntry(todo));
+        }
+    }
+
 }
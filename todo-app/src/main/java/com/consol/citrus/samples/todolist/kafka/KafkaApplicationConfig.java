@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Kafka listener configuration. In batch mode the inbound topic is consumed with a batch listener that receives all
+ * records of a poll at once. Offsets are committed after the listener has stored the whole batch.
+ *
+ * In incremental report mode every change of the todo list is published as event to the report topic.
+ * Compression and batching of the producer are configured here, too, when set explicitly.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "todo.kafka", value = "enabled")
+@EnableConfigurationProperties(KafkaConfigurationProperties.class)
+public class KafkaApplicationConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "todo.kafka.batch", value = "enabled")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> todoBatchListenerContainerFactory(ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+                                                                                                   ConsumerFactory<Object, Object> consumerFactory,
+                                                                                                   KafkaConfigurationProperties configurationProperties) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+
+        factory.setBatchListener(true);
+        factory.setConcurrency(configurationProperties.getConcurrency());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                String.valueOf(configurationProperties.getBatch().getMaxPollRecords()));
+        consumerProperties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "todo.kafka.report", value = "mode", havingValue = "incremental")
+    public TodoKafkaChangeFeed todoKafkaChangeFeed(TodoKafkaReportProducer reportProducer) {
+        return new TodoKafkaChangeFeed(reportProducer);
+    }
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer todoProducerFactoryCustomizer(KafkaConfigurationProperties configurationProperties) {
+        return producerFactory -> {
+            KafkaConfigurationProperties.Producer producer = configurationProperties.getProducer();
+
+            Map<String, Object> producerProperties = new HashMap<>();
+            if (producer.getCompressionType() != null) {
+                producerProperties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producer.getCompressionType());
+            }
+            if (producer.getLinger() != null) {
+                producerProperties.put(ProducerConfig.LINGER_MS_CONFIG, producer.getLinger());
+            }
+            if (producer.getBatchSize() != null) {
+                producerProperties.put(ProducerConfig.BATCH_SIZE_CONFIG, producer.getBatchSize());
+            }
+
+            if (!producerProperties.isEmpty()) {
+                producerFactory.updateConfigs(producerProperties);
+            }
+        };
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the Kafka integration.
+ */
+@ConfigurationProperties(prefix = "todo.kafka")
+public class KafkaConfigurationProperties {
+
+    /**
+     * Enables the Kafka integration.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of concurrent consumers on the inbound topic, at most one consumer per partition is active.
+     */
+    private int concurrency = 1;
+
+    /**
+     * Batch consumption settings.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * Report settings.
+     */
+    private Report report = new Report();
+
+    /**
+     * Producer settings.
+     */
+    private Producer producer = new Producer();
+
+    /**
+     * Gets the enabled.
+     *
+     * @return
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the enabled.
+     *
+     * @param enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the concurrency.
+     *
+     * @return
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Sets the concurrency.
+     *
+     * @param concurrency
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Gets the batch.
+     *
+     * @return
+     */
+    public Batch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Sets the batch.
+     *
+     * @param batch
+     */
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * Gets the report.
+     *
+     * @return
+     */
+    public Report getReport() {
+        return report;
+    }
+
+    /**
+     * Sets the report.
+     *
+     * @param report
+     */
+    public void setReport(Report report) {
+        this.report = report;
+    }
+
+    /**
+     * Gets the producer.
+     *
+     * @return
+     */
+    public Producer getProducer() {
+        return producer;
+    }
+
+    /**
+     * Sets the producer.
+     *
+     * @param producer
+     */
+    public void setProducer(Producer producer) {
+        this.producer = producer;
+    }
+
+    /**
+     * Batch consumption of the inbound topic.
+     */
+    public static class Batch {
+
+        /**
+         * Receive and store all records of a poll at once instead of one record at a time.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of records returned by a single poll.
+         */
+        private int maxPollRecords = 500;
+
+        /**
+         * Gets the enabled.
+         *
+         * @return
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets the enabled.
+         *
+         * @param enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the maxPollRecords.
+         *
+         * @return
+         */
+        public int getMaxPollRecords() {
+            return maxPollRecords;
+        }
+
+        /**
+         * Sets the maxPollRecords.
+         *
+         * @param maxPollRecords
+         */
+        public void setMaxPollRecords(int maxPollRecords) {
+            this.maxPollRecords = maxPollRecords;
+        }
+    }
+
+    /**
+     * Reports published to the report topic.
+     */
+    public static class Report {
+
+        /**
+         * Report mode, either snapshot to publish reports on request only or incremental to additionally
+         * publish an event for each change of the todo list.
+         */
+        private String mode = "snapshot";
+
+        /**
+         * Split reports into several records of bounded size.
+         */
+        private boolean chunked = false;
+
+        /**
+         * Maximum size of a report chunk in bytes, a single entry exceeding the size is sent as chunk of its own.
+         */
+        private int chunkSize = 256 * 1024;
+
+        /**
+         * Gets the mode.
+         *
+         * @return
+         */
+        public String getMode() {
+            return mode;
+        }
+
+        /**
+         * Sets the mode.
+         *
+         * @param mode
+         */
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * Gets the chunked.
+         *
+         * @return
+         */
+        public boolean isChunked() {
+            return chunked;
+        }
+
+        /**
+         * Sets the chunked.
+         *
+         * @param chunked
+         */
+        public void setChunked(boolean chunked) {
+            this.chunked = chunked;
+        }
+
+        /**
+         * Gets the chunkSize.
+         *
+         * @return
+         */
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        /**
+         * Sets the chunkSize.
+         *
+         * @param chunkSize
+         */
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Producer compression and batching. Settings left empty keep the producer configuration of Spring Boot.
+     */
+    public static class Producer {
+
+        /**
+         * Compression codec for produced record batches, one of none, gzip, snappy, lz4 or zstd.
+         */
+        private String compressionType;
+
+        /**
+         * Time in milliseconds the producer waits for further records before a batch is sent.
+         */
+        private Long linger;
+
+        /**
+         * Maximum size of a record batch per partition in bytes.
+         */
+        private Integer batchSize;
+
+        /**
+         * Gets the compressionType.
+         *
+         * @return
+         */
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        /**
+         * Sets the compressionType.
+         *
+         * @param compressionType
+         */
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        /**
+         * Gets the linger.
+         *
+         * @return
+         */
+        public Long getLinger() {
+            return linger;
+        }
+
+        /**
+         * Sets the linger.
+         *
+         * @param linger
+         */
+        public void setLinger(Long linger) {
+            this.linger = linger;
+        }
+
+        /**
+         * Gets the batchSize.
+         *
+         * @return
+         */
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the batchSize.
+         *
+         * @param batchSize
+         */
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+}
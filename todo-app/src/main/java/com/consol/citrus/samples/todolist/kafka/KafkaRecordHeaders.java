@@ -0,0 +1,58 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import java.nio.charset.StandardCharsets;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+/**
+ * Reads string headers of Kafka records.
+ */
+final class KafkaRecordHeaders {
+
+    private KafkaRecordHeaders() {
+    }
+
+    /**
+     * Gets the last value of given header as string.
+     * @return header value or null when the record has no such header.
+     */
+    static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Gets the content type of the record value.
+     * @return content type or null for records without content type header.
+     */
+    static String contentType(ConsumerRecord<?, ?> record) {
+        return header(record, TodoEntryCodec.CONTENT_TYPE_HEADER);
+    }
+
+    /**
+     * Gets the trace id of the record.
+     * @return trace id or null for records without trace id header.
+     */
+    static String traceId(ConsumerRecord<?, ?> record) {
+        return header(record, TraceContext.TRACE_ID);
+    }
+}
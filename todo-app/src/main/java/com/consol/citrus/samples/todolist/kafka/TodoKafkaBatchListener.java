@@ -0,0 +1,89 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.metrics.TodoMetrics;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.consol.citrus.samples.todolist.service.TodoListService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives all records of a poll from the inbound topic and stores them with a single bulk write. Records are decoded
+ * as JSON or Smile depending on their content type header, records that cannot be decoded are logged and skipped.
+ * When storing the batch fails the exception is propagated to the container, so offsets of the batch are not
+ * committed and the batch is redelivered. The batch is processed in the trace of its first record carrying a trace id.
+ */
+@Component
+@ConditionalOnExpression("${todo.kafka.enabled:false} && ${todo.kafka.batch.enabled:false}")
+public class TodoKafkaBatchListener {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(TodoKafkaBatchListener.class);
+
+    @Autowired
+    private TodoListService todoListService;
+
+    @Autowired
+    private TodoEntryCodec codec;
+
+    @Autowired
+    private TodoMetrics metrics;
+
+    @KafkaListener(topics = "todo.inbound", containerFactory = "todoBatchListenerContainerFactory",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer")
+    public void receiveTodos(List<ConsumerRecord<Integer, byte[]>> todoRecords) {
+        String traceId = null;
+        for (ConsumerRecord<Integer, byte[]> todoRecord : todoRecords) {
+            metrics.recordLag("kafka", todoRecord.timestamp());
+            if (traceId == null) {
+                traceId = KafkaRecordHeaders.traceId(todoRecord);
+            }
+        }
+
+        try (TraceContext.Scope scope = TraceContext.open(traceId)) {
+            metrics.record("todo.listener", "kafka.receiveTodos", () -> store(todoRecords));
+        }
+    }
+
+    private void store(List<ConsumerRecord<Integer, byte[]>> todoRecords) {
+        List<TodoEntry> entries = new ArrayList<>(todoRecords.size());
+        for (ConsumerRecord<Integer, byte[]> todoRecord : todoRecords) {
+            try {
+                entries.add(codec.readEntry(todoRecord.value(), KafkaRecordHeaders.contentType(todoRecord)));
+            } catch (IOException e) {
+                log.error(String.format("Failed to create todo entry from Kafka record %s-%s@%s",
+                        todoRecord.topic(), todoRecord.partition(), todoRecord.offset()), e);
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            todoListService.addEntries(entries);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import com.consol.citrus.samples.todolist.model.TodoChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Incremental report publishing every todo list change as compact event instead of the full done list. Events are
+ * published after the change has been stored, so failures are logged and do not fail the change itself.
+ */
+public class TodoKafkaChangeFeed {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(TodoKafkaChangeFeed.class);
+
+    private final TodoKafkaReportProducer reportProducer;
+
+    public TodoKafkaChangeFeed(TodoKafkaReportProducer reportProducer) {
+        this.reportProducer = reportProducer;
+    }
+
+    @EventListener
+    public void onChange(TodoChangeEvent event) {
+        try {
+            reportProducer.sendChange(event);
+        } catch (RuntimeException e) {
+            log.error(String.format("Failed to publish todo change event %s %s", event.getType(), event.getId()), e);
+        }
+    }
+}
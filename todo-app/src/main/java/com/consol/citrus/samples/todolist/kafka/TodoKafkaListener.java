@@ -2,14 +2,16 @@ package com.consol.citrus.samples.todolist.kafka;
 
 import java.io.IOException;
 
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.metrics.TodoMetrics;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import com.consol.citrus.samples.todolist.service.TodoListService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -17,7 +19,7 @@ import org.springframework.stereotype.Component;
  * @author Christoph Deppisch
  */
 @Component
-@ConditionalOnProperty(prefix = "todo.kafka", value = "enabled")
+@ConditionalOnExpression("${todo.kafka.enabled:false} && !${todo.kafka.batch.enabled:false}")
 public class TodoKafkaListener {
 
     /** Logger */
@@ -26,13 +28,26 @@ public class TodoKafkaListener {
     @Autowired
     private TodoListService todoListService;
 
-    @KafkaListener(topics = "todo.inbound")
-    public void receiveTodo(ConsumerRecord<Integer, String> todoRecord) {
-        try {
-            TodoEntry entry = new ObjectMapper().readValue(todoRecord.value(), TodoEntry.class);
-            todoListService.addEntry(entry);
-        } catch (IOException e) {
-            log.error("Failed to create todo entry from Kafka record", e);
+    @Autowired
+    private TodoEntryCodec codec;
+
+    @Autowired
+    private TodoMetrics metrics;
+
+    @KafkaListener(topics = "todo.inbound", concurrency = "${todo.kafka.concurrency:1}",
+            properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer")
+    public void receiveTodo(ConsumerRecord<Integer, byte[]> todoRecord) {
+        metrics.recordLag("kafka", todoRecord.timestamp());
+
+        try (TraceContext.Scope scope = TraceContext.open(KafkaRecordHeaders.traceId(todoRecord))) {
+            metrics.record("todo.listener", "kafka.receiveTodo", () -> {
+                try {
+                    TodoEntry entry = codec.readEntry(todoRecord.value(), KafkaRecordHeaders.contentType(todoRecord));
+                    todoListService.addEntry(entry);
+                } catch (IOException e) {
+                    log.error("Failed to create todo entry from Kafka record", e);
+                }
+            });
         }
     }
 }
@@ -1,14 +1,20 @@
 package com.consol.citrus.samples.todolist.kafka;
 
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.metrics.TraceContext;
+import com.consol.citrus.samples.todolist.model.TodoChangeEvent;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * @author Christoph Deppisch
@@ -17,18 +23,120 @@ import java.util.List;
 @ConditionalOnProperty(prefix = "todo.kafka", value = "enabled")
 public class TodoKafkaReportProducer {
 
+    /** Header holding the id shared by all chunks of a report */
+    public static final String REPORT_ID_HEADER = "todo_report_id";
+
+    /** Header holding the zero based position of a chunk within its report */
+    public static final String CHUNK_SEQUENCE_HEADER = "todo_report_sequence";
+
+    /** Header holding the total number of chunks of a report */
+    public static final String CHUNK_TOTAL_HEADER = "todo_report_total";
+
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
 
+    @Autowired
+    private TodoEntryCodec codec;
+
+    @Autowired
+    private KafkaConfigurationProperties configurationProperties;
+
     /**
      * Send entries to Kafka topic.
      */
     public void sendReport(List<TodoEntry> entries) {
         try {
-            String jsonPayload = new ObjectMapper().writeValueAsString(entries);
-            kafkaTemplate.send("todo.report", "todo.entries.done", jsonPayload);
+            send("todo.entries.done", entries);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to send Kafka todo report", e);
         }
     }
+
+    /**
+     * Send all entries to Kafka topic so consumers of the change feed can resync their state.
+     */
+    public void sendSnapshot(List<TodoEntry> entries) {
+        try {
+            send("todo.entries.snapshot", entries);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to send Kafka todo snapshot", e);
+        }
+    }
+
+    /**
+     * Send single change event to Kafka topic. All events share the same key so they keep their order on a single partition.
+     */
+    public void sendChange(TodoChangeEvent event) {
+        try {
+            String jsonPayload = codec.writeEvent(event);
+            kafkaTemplate.send(record("todo.entries.change", jsonPayload));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to send Kafka todo change event", e);
+        }
+    }
+
+    /**
+     * Sends entries as single record or, in chunked report mode, as several records each holding a JSON array
+     * of bounded size. Chunks share the record key, so they are stored in order on the same partition.
+     */
+    private void send(String key, List<TodoEntry> entries) throws JsonProcessingException {
+        if (!configurationProperties.getReport().isChunked()) {
+            kafkaTemplate.send(record(key, codec.writeEntries(entries)));
+            return;
+        }
+
+        List<String> chunks = chunk(entries, configurationProperties.getReport().getChunkSize());
+        byte[] reportId = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        byte[] total = String.valueOf(chunks.size()).getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < chunks.size(); i++) {
+            ProducerRecord<String, String> chunk = record(key, chunks.get(i));
+            chunk.headers().add(REPORT_ID_HEADER, reportId);
+            chunk.headers().add(CHUNK_SEQUENCE_HEADER, String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+            chunk.headers().add(CHUNK_TOTAL_HEADER, total);
+            kafkaTemplate.send(chunk);
+        }
+    }
+
+    /**
+     * Creates record for the report topic carrying the trace id of the current thread.
+     */
+    private ProducerRecord<String, String> record(String key, String value) {
+        ProducerRecord<String, String> record = new ProducerRecord<>("todo.report", key, value);
+        String traceId = TraceContext.current();
+        if (traceId != null) {
+            record.headers().add(TraceContext.TRACE_ID, traceId.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return record;
+    }
+
+    /**
+     * Splits entries into JSON arrays whose encoded size does not exceed given number of bytes.
+     */
+    private List<String> chunk(List<TodoEntry> entries, int chunkSize) throws JsonProcessingException {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder("[");
+        int chunkBytes = 2;
+
+        for (TodoEntry entry : entries) {
+            String json = codec.writeEntry(entry);
+            int entryBytes = json.getBytes(StandardCharsets.UTF_8).length + 1;
+
+            if (chunk.length() > 1 && chunkBytes + entryBytes > chunkSize) {
+                chunks.add(chunk.append(']').toString());
+                chunk = new StringBuilder("[");
+                chunkBytes = 2;
+            }
+
+            if (chunk.length() > 1) {
+                chunk.append(',');
+            }
+            chunk.append(json);
+            chunkBytes += entryBytes;
+        }
+
+        chunks.add(chunk.append(']').toString());
+        return chunks;
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consumer side counterpart of chunked Kafka reports. Every chunk is a JSON array of its own, so consumers may either
+ * process each chunk as it arrives with {@link #readChunk(ConsumerRecord)} or collect all chunks of a report with
+ * {@link #add(ConsumerRecord)}. Records without report id header are treated as complete single record reports.
+ *
+ * Chunk headers are validated before a chunk is accepted. The number of incomplete reports is bounded, the oldest
+ * incomplete report is dropped when the bound is reached, and reports that are still incomplete after the timeout are
+ * dropped, so a lost chunk does not keep its report in memory forever.
+ */
+public class TodoReportChunkAssembler {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(TodoReportChunkAssembler.class);
+
+    /** Default time in milliseconds after the first chunk within which a report must be complete */
+    public static final long DEFAULT_TIMEOUT = 5 * 60 * 1000L;
+
+    /** Default maximum number of chunks of a single report */
+    public static final int DEFAULT_MAX_CHUNKS = 10000;
+
+    /** Default maximum number of incomplete reports */
+    public static final int DEFAULT_MAX_PENDING_REPORTS = 100;
+
+    private final TodoEntryCodec codec;
+    private final long timeout;
+    private final int maxChunks;
+    private final int maxPendingReports;
+
+    /** Incomplete reports by report id, oldest first */
+    private final Map<String, PendingReport> pending = new LinkedHashMap<>();
+
+    public TodoReportChunkAssembler(TodoEntryCodec codec) {
+        this(codec, DEFAULT_TIMEOUT, DEFAULT_MAX_CHUNKS, DEFAULT_MAX_PENDING_REPORTS);
+    }
+
+    public TodoReportChunkAssembler(TodoEntryCodec codec, long timeout, int maxChunks, int maxPendingReports) {
+        this.codec = codec;
+        this.timeout = timeout;
+        this.maxChunks = maxChunks;
+        this.maxPendingReports = maxPendingReports;
+    }
+
+    /**
+     * Decodes the entries of a single chunk. Values may be read as string or as bytes.
+     * @param record
+     * @return
+     * @throws IOException
+     */
+    public List<TodoEntry> readChunk(ConsumerRecord<?, ?> record) throws IOException {
+        Object value = record.value();
+        if (value instanceof byte[]) {
+            return codec.readEntries((byte[]) value);
+        }
+
+        if (value == null) {
+            throw new IOException(String.format("Empty report record at offset %s", record.offset()));
+        }
+
+        return codec.readEntries(value.toString());
+    }
+
+    /**
+     * Adds chunk to its report.
+     * @param record
+     * @return all entries of the report in order once the last missing chunk has been added, otherwise empty.
+     * @throws IOException when the chunk cannot be decoded.
+     * @throws IllegalArgumentException when the chunk headers are missing, out of range or do not match earlier
+     * chunks of the same report.
+     */
+    public Optional<List<TodoEntry>> add(ConsumerRecord<?, ?> record) throws IOException {
+        return add(record, System.currentTimeMillis());
+    }
+
+    synchronized Optional<List<TodoEntry>> add(ConsumerRecord<?, ?> record, long now) throws IOException {
+        evictExpired(now);
+
+        String reportId = KafkaRecordHeaders.header(record, TodoKafkaReportProducer.REPORT_ID_HEADER);
+        if (reportId == null) {
+            return Optional.of(readChunk(record));
+        }
+
+        int total = intHeader(record, TodoKafkaReportProducer.CHUNK_TOTAL_HEADER);
+        int sequence = intHeader(record, TodoKafkaReportProducer.CHUNK_SEQUENCE_HEADER);
+        if (total < 1 || total > maxChunks) {
+            throw new IllegalArgumentException(String.format("Invalid chunk total %s of report '%s', expected 1 to %s", total, reportId, maxChunks));
+        }
+
+        if (sequence < 0 || sequence >= total) {
+            throw new IllegalArgumentException(String.format("Invalid chunk sequence %s of report '%s' with %s chunks", sequence, reportId, total));
+        }
+
+        PendingReport report = pending.get(reportId);
+        if (report != null && report.chunks.length != total) {
+            throw new IllegalArgumentException(String.format("Chunk total %s of report '%s' does not match total %s of earlier chunks",
+                    total, reportId, report.chunks.length));
+        }
+
+        List<TodoEntry> chunk = readChunk(record);
+        if (total == 1) {
+            return Optional.of(chunk);
+        }
+
+        if (report == null) {
+            if (pending.size() >= maxPendingReports) {
+                Iterator<Map.Entry<String, PendingReport>> oldest = pending.entrySet().iterator();
+                log.warn(String.format("Dropping incomplete report '%s', too many incomplete reports", oldest.next().getKey()));
+                oldest.remove();
+            }
+
+            report = new PendingReport(total, now);
+            pending.put(reportId, report);
+        }
+
+        if (report.chunks[sequence] == null) {
+            report.received++;
+        }
+        report.chunks[sequence] = chunk;
+
+        if (report.received < total) {
+            return Optional.empty();
+        }
+
+        pending.remove(reportId);
+        List<TodoEntry> entries = new ArrayList<>();
+        for (List<TodoEntry> reportChunk : report.chunks) {
+            entries.addAll(reportChunk);
+        }
+
+        return Optional.of(entries);
+    }
+
+    /**
+     * Number of reports that are still missing chunks.
+     * @return
+     */
+    public synchronized int pendingReports() {
+        return pending.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Map.Entry<String, PendingReport>> reports = pending.entrySet().iterator();
+        while (reports.hasNext()) {
+            Map.Entry<String, PendingReport> report = reports.next();
+            if (now - report.getValue().startedAt <= timeout) {
+                return;
+            }
+
+            log.warn(String.format("Dropping incomplete report '%s', received %s of %s chunks within %s ms",
+                    report.getKey(), report.getValue().received, report.getValue().chunks.length, timeout));
+            reports.remove();
+        }
+    }
+
+    private int intHeader(ConsumerRecord<?, ?> record, String name) {
+        String value = KafkaRecordHeaders.header(record, name);
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Missing header '%s' on report chunk at offset %s", name, record.offset()));
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Invalid header '%s' value '%s' on report chunk at offset %s", name, value, record.offset()), e);
+        }
+    }
+
+    /**
+     * Chunks of a report received so far.
+     */
+    private static class PendingReport {
+        private final List<TodoEntry>[] chunks;
+        private final long startedAt;
+        private int received;
+
+        @SuppressWarnings("unchecked")
+        PendingReport(int total, long startedAt) {
+            this.chunks = new List[total];
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.metrics;
+
+import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configures timing of storage operations and listeners. The storage bean is wrapped before the caching layer, so
+ * storage timers measure the actual storage and cache hits are not counted as storage operations.
+ */
+@Configuration
+@EnableConfigurationProperties(MetricsConfigurationProperties.class)
+public class MetricsApplicationConfig {
+
+    @Bean
+    public TodoMetrics todoMetrics(ObjectProvider<MeterRegistry> meterRegistry, MetricsConfigurationProperties configurationProperties) {
+        return new TodoMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), configurationProperties);
+    }
+
+    @Bean
+    public static BeanPostProcessor timedTodoListDaoPostProcessor(ObjectProvider<TodoMetrics> todoMetrics) {
+        return new TimedTodoListDaoPostProcessor(todoMetrics);
+    }
+
+    /**
+     * Ordered, so it runs before the unordered caching post processor.
+     */
+    private static class TimedTodoListDaoPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<TodoMetrics> todoMetrics;
+
+        TimedTodoListDaoPostProcessor(ObjectProvider<TodoMetrics> todoMetrics) {
+            this.todoMetrics = todoMetrics;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof TodoListDao && !(bean instanceof TimedTodoListDao)) {
+                return new TimedTodoListDao((TodoListDao) bean, todoMetrics.getObject());
+            }
+
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the todo application metrics.
+ */
+@ConfigurationProperties(prefix = "todo.metrics")
+public class MetricsConfigurationProperties {
+
+    /**
+     * Percentiles computed for every timer.
+     */
+    private double[] percentiles = {0.5, 0.95, 0.99};
+
+    /**
+     * Publish percentile histogram buckets so percentiles can be aggregated across instances.
+     */
+    private boolean percentileHistogram = false;
+
+    /**
+     * Storage operations taking longer than this number of milliseconds are logged with their trace id, 0 disables logging.
+     */
+    private long slowThreshold = 500L;
+
+    /**
+     * Gets the percentiles.
+     *
+     * @return
+     */
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    /**
+     * Sets the percentiles.
+     *
+     * @param percentiles
+     */
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    /**
+     * Gets the percentileHistogram.
+     *
+     * @return
+     */
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    /**
+     * Sets the percentileHistogram.
+     *
+     * @param percentileHistogram
+     */
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    /**
+     * Gets the slowThreshold.
+     *
+     * @return
+     */
+    public long getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    /**
+     * Sets the slowThreshold.
+     *
+     * @param slowThreshold
+     */
+    public void setSlowThreshold(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import com.consol.citrus.samples.todolist.dao.TodoListCursor;
+import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Times every operation of the wrapped todo list storage. Streams are timed until they are opened, not while they
+ * are consumed.
+ */
+public class TimedTodoListDao implements TodoListDao, DisposableBean {
+
+    /** Timer name of storage operations */
+    public static final String NAME = "todo.dao";
+
+    private final TodoListDao delegate;
+    private final TodoMetrics metrics;
+
+    public TimedTodoListDao(TodoListDao delegate, TodoMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void save(TodoEntry entry) {
+        metrics.record(NAME, "save", () -> delegate.save(entry));
+    }
+
+    @Override
+    public Set<TodoEntry> list() {
+        return metrics.record(NAME, "list", () -> delegate.list());
+    }
+
+    @Override
+    public Set<TodoEntry> list(int limit) {
+        return metrics.record(NAME, "listLimit", () -> delegate.list(limit));
+    }
+
+    @Override
+    public Stream<TodoEntry> stream() {
+        return metrics.record(NAME, "stream", () -> delegate.stream());
+    }
+
+    @Override
+    public List<TodoEntry> list(TodoListCursor after, int limit) {
+        return metrics.record(NAME, "listPage", () -> delegate.list(after, limit));
+    }
+
+    @Override
+    public List<TodoEntry> listCreated(long from, long to) {
+        return metrics.record(NAME, "listCreated", () -> delegate.listCreated(from, to));
+    }
+
+    @Override
+    public void delete(TodoEntry entry) {
+        metrics.record(NAME, "delete", () -> delegate.delete(entry));
+    }
+
+    @Override
+    public void deleteAll() {
+        metrics.record(NAME, "deleteAll", () -> delegate.deleteAll());
+    }
+
+    @Override
+    public void update(TodoEntry entry) {
+        metrics.record(NAME, "update", () -> delegate.update(entry));
+    }
+
+    @Override
+    public Optional<TodoEntry> findById(UUID id) {
+        return metrics.record(NAME, "findById", () -> delegate.findById(id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return metrics.record(NAME, "existsById", () -> delegate.existsById(id));
+    }
+
+    @Override
+    public boolean deleteById(UUID id) {
+        return metrics.record(NAME, "deleteById", () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public int deleteByTitle(String title) {
+        return metrics.record(NAME, "deleteByTitle", () -> delegate.deleteByTitle(title));
+    }
+
+    @Override
+    public boolean updateStatus(UUID id, boolean done) {
+        return metrics.record(NAME, "updateStatus", () -> delegate.updateStatus(id, done));
+    }
+
+    @Override
+    public void saveAll(Collection<TodoEntry> entries) {
+        metrics.record(NAME, "saveAll", () -> delegate.saveAll(entries));
+    }
+
+    @Override
+    public void updateAll(Collection<TodoEntry> entries) {
+        metrics.record(NAME, "updateAll", () -> delegate.updateAll(entries));
+    }
+
+    @Override
+    public int deleteAll(Collection<UUID> ids) {
+        return metrics.record(NAME, "deleteAllById", () -> delegate.deleteAll(ids));
+    }
+
+    @Override
+    public long count() {
+        return metrics.record(NAME, "count", () -> delegate.count());
+    }
+
+    @Override
+    public long countDone() {
+        return metrics.record(NAME, "countDone", () -> delegate.countDone());
+    }
+
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean) {
+            ((DisposableBean) delegate).destroy();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records timings of storage operations and message listeners. Every operation gets a timer with the configured
+ * percentiles and a gauge of currently running invocations, both tagged with the operation name. Meters are created
+ * once per operation and looked up from a map afterwards, so recording does not go through the registry.
+ */
+public class TodoMetrics {
+
+    /** Logger */
+    private static final Logger log = LoggerFactory.getLogger(TodoMetrics.class);
+
+    /** Timer recording the time messages spent on the broker until they were received */
+    public static final String QUEUE_LAG = "todo.queue.lag";
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsConfigurationProperties configurationProperties;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
+
+    public TodoMetrics(MeterRegistry meterRegistry, MetricsConfigurationProperties configurationProperties) {
+        this.meterRegistry = meterRegistry;
+        this.configurationProperties = configurationProperties;
+    }
+
+    /**
+     * Runs and times given work.
+     * @param name metric name, the in-flight gauge is named with suffix ".inflight".
+     * @param operation operation tag.
+     * @param work
+     * @return result of the work.
+     */
+    public <T> T record(String name, String operation, Supplier<T> work) {
+        Operation op = operations.computeIfAbsent(name + '#' + operation, key -> new Operation(name, operation));
+        op.inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            long duration = System.nanoTime() - start;
+            op.inFlight.decrementAndGet();
+            op.timer.record(duration, TimeUnit.NANOSECONDS);
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(duration);
+            if (configurationProperties.getSlowThreshold() > 0 && millis > configurationProperties.getSlowThreshold()) {
+                log.warn(String.format("Slow %s operation '%s' took %s ms", name, operation, millis));
+            }
+        }
+    }
+
+    /**
+     * Runs and times given work.
+     * @param name
+     * @param operation
+     * @param work
+     */
+    public void record(String name, String operation, Runnable work) {
+        record(name, operation, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records time between sending and receiving a message.
+     * @param transport transport tag, e.g. kafka or jms.
+     * @param timestamp send timestamp of the message in milliseconds, ignored when not set.
+     */
+    public void recordLag(String transport, long timestamp) {
+        if (timestamp <= 0) {
+            return;
+        }
+
+        lagTimers.computeIfAbsent(transport, key -> timer(QUEUE_LAG, Tags.of("transport", key)))
+                .record(Math.max(0L, System.currentTimeMillis() - timestamp), TimeUnit.MILLISECONDS);
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(configurationProperties.getPercentiles())
+                .publishPercentileHistogram(configurationProperties.isPercentileHistogram())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Meters of a single operation.
+     */
+    private class Operation {
+        private final Timer timer;
+        private final AtomicInteger inFlight;
+
+        Operation(String name, String operation) {
+            Tags tags = Tags.of("operation", operation);
+            this.timer = timer(name, tags);
+            this.inFlight = meterRegistry.gauge(name + ".inflight", tags, new AtomicInteger());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.MDC;
+
+/**
+ * Holds the trace id of the unit of work processed by the current thread. Entry points open a scope with the trace id
+ * received from the caller, or a new one, and close it when done. The trace id is put into the logging MDC, so every
+ * log statement down to the storage is tagged with it, and outbound messages carry it on to their consumers.
+ */
+public final class TraceContext {
+
+    /** Http header holding the trace id */
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    /** Kafka header, Jms property and MDC key holding the trace id */
+    public static final String TRACE_ID = "traceId";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * Gets the trace id of the current thread.
+     * @return trace id or null when no scope is open.
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens scope for given trace id. A new trace id is created when the given one is empty.
+     * @param traceId
+     * @return scope restoring the previous trace id on close.
+     */
+    public static Scope open(String traceId) {
+        String previous = CURRENT.get();
+        set(traceId != null && !traceId.isEmpty() ? traceId : newTraceId());
+        return () -> set(previous);
+    }
+
+    private static void set(String traceId) {
+        if (traceId == null) {
+            CURRENT.remove();
+            MDC.remove(TRACE_ID);
+        } else {
+            CURRENT.set(traceId);
+            MDC.put(TRACE_ID, traceId);
+        }
+    }
+
+    private static String newTraceId() {
+        return String.format("%016x", ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Open trace scope. Closing does not throw.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.model;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Compact notification about a single change of the todo list. Completed and reopened events carry the resulting done
+ * state, batch updates publish them only for entries whose done state actually changed. Events for entries deleted by
+ * title carry the title but no id, events for bulk deletes carry the id only and are published only for entries that
+ * existed. A cleared todo list is reported without id and title.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoChangeEvent {
+
+    public enum Type {
+        CREATED, COMPLETED, REOPENED, DELETED, CLEARED
+    }
+
+    private final Type type;
+    private final UUID id;
+    private final String title;
+    private final Boolean done;
+    private final long timestamp;
+
+    public TodoChangeEvent(Type type, UUID id, String title, Boolean done) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.done = done;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public static TodoChangeEvent of(Type type, TodoEntry entry) {
+        return new TodoChangeEvent(type, entry.getId(), entry.getTitle(), entry.isDone());
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Boolean getDone() {
+        return done;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+}
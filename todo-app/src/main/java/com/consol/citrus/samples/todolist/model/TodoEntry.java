@@ -17,6 +17,7 @@
 package com.consol.citrus.samples.todolist.model;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.xml.bind.annotation.XmlAccessType;
@@ -40,6 +41,15 @@ import jakarta.xml.bind.annotation.XmlType;
 @XmlRootElement(name = "todo")
 public class TodoEntry implements Comparable<TodoEntry> {
 
+    /** Number of low order bits of the order key holding the sequence within a millisecond */
+    public static final int ORDER_KEY_SEQUENCE_BITS = 12;
+
+    /** Latest creation time that can be represented by an order key */
+    private static final long MAX_ORDER_KEY_TIME = Long.MAX_VALUE >> ORDER_KEY_SEQUENCE_BITS;
+
+    /** Last order key handed out in this JVM */
+    private static final AtomicLong LAST_ORDER_KEY = new AtomicLong();
+
     private UUID id;
     @XmlElement(required = true)
     private String title;
@@ -51,9 +61,14 @@ public class TodoEntry implements Comparable<TodoEntry> {
     @JsonIgnore
     private final long createdAt;
 
+    @XmlTransient
+    @JsonIgnore
+    private final long orderKey;
+
     public TodoEntry() {
         this.id = UUID.randomUUID();
         this.createdAt = System.currentTimeMillis();
+        this.orderKey = nextOrderKey(createdAt);
     }
 
     public TodoEntry(String title, String description) {
@@ -65,6 +80,44 @@ public class TodoEntry implements Comparable<TodoEntry> {
         this.title = title;
         this.description = description;
         this.createdAt = System.currentTimeMillis();
+        this.orderKey = nextOrderKey(createdAt);
+    }
+
+    /**
+     * Restores entry created at given time without known order key, e.g. stored by an earlier release. The entry gets
+     * the first order key of its creation millisecond.
+     */
+    public TodoEntry(UUID id, String title, String description, long createdAt) {
+        this(id, title, description, createdAt, orderKeyOf(createdAt));
+    }
+
+    public TodoEntry(UUID id, String title, String description, long createdAt, long orderKey) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.createdAt = createdAt;
+        this.orderKey = orderKey;
+    }
+
+    /**
+     * Creates order key for an entry created at given time. Keys are the creation time shifted by the sequence bits
+     * plus a sequence, they are strictly increasing within the JVM and never collide. When more keys than the sequence
+     * can hold are created within one millisecond, keys continue into the following millisecond.
+     * @param createdAt
+     * @return
+     */
+    public static long nextOrderKey(long createdAt) {
+        long min = orderKeyOf(createdAt);
+        return LAST_ORDER_KEY.accumulateAndGet(min, (last, candidate) -> Math.max(last + 1, candidate));
+    }
+
+    /**
+     * Gets the smallest order key of entries created at given time. Times out of the representable range are clamped.
+     * @param createdAt
+     * @return
+     */
+    public static long orderKeyOf(long createdAt) {
+        return Math.max(0L, Math.min(createdAt, MAX_ORDER_KEY_TIME)) << ORDER_KEY_SEQUENCE_BITS;
     }
 
     public UUID getId() {
@@ -107,9 +160,16 @@ public class TodoEntry implements Comparable<TodoEntry> {
         return attachment;
     }
 
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getOrderKey() {
+        return orderKey;
+    }
+
     @Override
     public int compareTo(TodoEntry o) {
-        return Long.compare(createdAt, o.createdAt);
-
+        return Long.compare(orderKey, o.orderKey);
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.model;
+
+import java.util.List;
+
+/**
+ * Single page of todo entries in creation order. The next cursor is empty on the last page.
+ */
+public class TodoListPage {
+
+    private final List<TodoEntry> entries;
+    private final String next;
+
+    public TodoListPage(List<TodoEntry> entries, String next) {
+        this.entries = entries;
+        this.next = next;
+    }
+
+    public List<TodoEntry> getEntries() {
+        return entries;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
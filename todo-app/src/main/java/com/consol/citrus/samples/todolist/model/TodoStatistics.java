@@ -0,0 +1,64 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.model;
+
+import java.util.Map;
+
+/**
+ * Aggregate figures of the todo list. Rates are given in entries per minute for each sliding window, e.g. "1m", "5m"
+ * and "15m".
+ */
+public class TodoStatistics {
+
+    private final long total;
+    private final long done;
+    private final Map<String, Double> creationRate;
+    private final Map<String, Double> completionRate;
+    private final long timestamp;
+
+    public TodoStatistics(long total, long done, Map<String, Double> creationRate, Map<String, Double> completionRate) {
+        this.total = total;
+        this.done = done;
+        this.creationRate = creationRate;
+        this.completionRate = completionRate;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getOpen() {
+        return total - done;
+    }
+
+    public Map<String, Double> getCreationRate() {
+        return creationRate;
+    }
+
+    public Map<String, Double> getCompletionRate() {
+        return completionRate;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
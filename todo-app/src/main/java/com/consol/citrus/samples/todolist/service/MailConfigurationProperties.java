@@ -0,0 +1,302 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the SMTP mail delivery.
+ */
+@ConfigurationProperties(prefix = "todo.mail")
+public class MailConfigurationProperties {
+
+    /**
+     * SMTP server host.
+     */
+    private String host = "localhost";
+
+    /**
+     * SMTP server port.
+     */
+    private int port = 2222;
+
+    /**
+     * SMTP user name.
+     */
+    private String username = "todo-report";
+
+    /**
+     * SMTP user password.
+     */
+    private String password = "secretpw";
+
+    /**
+     * Sender address of all mails.
+     */
+    private String from = "todo-report@example.org";
+
+    /**
+     * Log the SMTP protocol exchange.
+     */
+    private boolean debug = false;
+
+    /**
+     * Queue mails and deliver them on a background thread instead of blocking the caller.
+     */
+    private boolean async = true;
+
+    /**
+     * Maximum number of mails waiting for delivery, further mails are rejected.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Maximum number of queued mails delivered in one go over the same connection.
+     */
+    private int batchSize = 10;
+
+    /**
+     * Number of delivery retries of a mail before it is dropped.
+     */
+    private int maxRetries = 3;
+
+    /**
+     * Delay in milliseconds before a failed delivery is retried.
+     */
+    private long retryDelay = 1000L;
+
+    /**
+     * Time in milliseconds an idle SMTP connection is kept open for further mails.
+     */
+    private long idleTimeout = 5000L;
+
+    /**
+     * Gets the host.
+     *
+     * @return
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Sets the host.
+     *
+     * @param host
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * Gets the port.
+     *
+     * @return
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Sets the port.
+     *
+     * @param port
+     */
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Gets the username.
+     *
+     * @return
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the username.
+     *
+     * @param username
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Gets the password.
+     *
+     * @return
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Sets the password.
+     *
+     * @param password
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * Gets the from.
+     *
+     * @return
+     */
+    public String getFrom() {
+        return from;
+    }
+
+    /**
+     * Sets the from.
+     *
+     * @param from
+     */
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    /**
+     * Gets the debug.
+     *
+     * @return
+     */
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * Sets the debug.
+     *
+     * @param debug
+     */
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+    /**
+     * Gets the async.
+     *
+     * @return
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Sets the async.
+     *
+     * @param async
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    /**
+     * Gets the queueCapacity.
+     *
+     * @return
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the queueCapacity.
+     *
+     * @param queueCapacity
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets the batchSize.
+     *
+     * @return
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the batchSize.
+     *
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the maxRetries.
+     *
+     * @return
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Sets the maxRetries.
+     *
+     * @param maxRetries
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Gets the retryDelay.
+     *
+     * @return
+     */
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    /**
+     * Sets the retryDelay.
+     *
+     * @param retryDelay
+     */
+    public void setRetryDelay(long retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Gets the idleTimeout.
+     *
+     * @return
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the idleTimeout.
+     *
+     * @param idleTimeout
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
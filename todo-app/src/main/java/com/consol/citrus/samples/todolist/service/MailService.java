@@ -16,8 +16,15 @@
 
 package com.consol.citrus.samples.todolist.service;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.mail.Authenticator;
 import jakarta.mail.Message;
@@ -29,56 +36,221 @@ import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
 
 /**
+ * Sends mails via SMTP. In async mode mails are put on a bounded queue and delivered by a background worker that keeps
+ * its SMTP connection open while there is work, so consecutive mails share one connection. Failed deliveries are
+ * retried on a fresh connection after the retry delay, while the worker goes on with the other queued mails.
+ *
  * @author Christoph Deppisch
  */
 @Service
-public class MailService {
+@EnableConfigurationProperties(MailConfigurationProperties.class)
+public class MailService implements InitializingBean, DisposableBean {
 
     /** Logger */
     private static final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final int MAIL_SERVER_PORT = 2222;
+    private final MailConfigurationProperties configurationProperties;
 
-    private final String from = "todo-report@example.org";
-    private final String username = "todo-report";
-    private final String password = "secretpw";
+    private final Session session;
+
+    private BlockingQueue<PendingMail> queue;
+
+    /** Failed mails waiting for their next delivery attempt */
+    private final DelayQueue<PendingMail> retries = new DelayQueue<>();
+    private Thread worker;
+    private volatile boolean running;
+
+    public MailService(MailConfigurationProperties configurationProperties) {
+        this.configurationProperties = configurationProperties;
 
-    /**
-     * Send mail via SMTP connection.
-     * @param to
-     * @param subject
-     * @param body
-     */
-    public void sendMail(String to, String subject, String body) {
         Properties props = new Properties();
-        props.put("mail.smtp.host", "localhost");
-        props.put("mail.smtp.port", MAIL_SERVER_PORT);
+        props.put("mail.smtp.host", configurationProperties.getHost());
+        props.put("mail.smtp.port", configurationProperties.getPort());
         props.put("mail.smtp.auth", true);
 
         Authenticator authenticator = new Authenticator() {
-            private final PasswordAuthentication pa = new PasswordAuthentication(username, password);
+            private final PasswordAuthentication pa = new PasswordAuthentication(configurationProperties.getUsername(), configurationProperties.getPassword());
             @Override
             public PasswordAuthentication getPasswordAuthentication() {
                 return pa;
             }
         };
 
-        Session session = Session.getInstance(props, authenticator);
-        session.setDebug(true);
+        this.session = Session.getInstance(props, authenticator);
+        this.session.setDebug(configurationProperties.isDebug());
+    }
+
+    /**
+     * Send mail via SMTP connection. In async mode the mail is only queued for delivery.
+     * @param to
+     * @param subject
+     * @param body
+     * @throws MailQueueFullException when the mail cannot be queued in async mode.
+     */
+    public void sendMail(String to, String subject, String body) {
         MimeMessage message = new MimeMessage(session);
         try {
-            message.setFrom(new InternetAddress(from));
+            message.setFrom(new InternetAddress(configurationProperties.getFrom()));
             InternetAddress[] address = {new InternetAddress(to)};
             message.setRecipients(Message.RecipientType.TO, address);
             message.setSubject(subject);
             message.setSentDate(new Date());
             message.setText(body);
-            Transport.send(message);
         } catch (MessagingException e) {
             log.error("Failed to send mail!", e);
+            return;
+        }
+
+        if (queue == null) {
+            try {
+                Transport.send(message);
+            } catch (MessagingException e) {
+                log.error("Failed to send mail!", e);
+            }
+        } else if (!queue.offer(new PendingMail(message))) {
+            throw new MailQueueFullException(String.format("Unable to send mail to '%s' - mail queue is full", to));
+        }
+    }
+
+    /**
+     * Delivers queued mails until the service is stopped. The connection is reused for consecutive batches and closed
+     * once no mail arrived within the idle timeout. Failed mails are rescheduled on the retry queue, so they do not
+     * hold up the mails queued behind them.
+     */
+    private void deliver() {
+        Transport transport = null;
+        List<PendingMail> batch = new ArrayList<>(configurationProperties.getBatchSize());
+
+        while (running || !queue.isEmpty() || !retries.isEmpty()) {
+            try {
+                retries.drainTo(batch, configurationProperties.getBatchSize());
+                if (batch.isEmpty()) {
+                    PendingMail first = queue.poll(pollTimeout(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        transport = close(transport);
+                        continue;
+                    }
+
+                    batch.add(first);
+                }
+                queue.drainTo(batch, configurationProperties.getBatchSize() - batch.size());
+
+                for (PendingMail mail : batch) {
+                    transport = send(transport, mail);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        close(transport);
+    }
+
+    /**
+     * Time to wait for new mails, bounded by the time until the next retry is due.
+     */
+    private long pollTimeout() {
+        PendingMail next = retries.peek();
+        if (next == null) {
+            return configurationProperties.getIdleTimeout();
+        }
+
+        return Math.max(0L, Math.min(configurationProperties.getIdleTimeout(), next.getDelay(TimeUnit.MILLISECONDS)));
+    }
+
+    /**
+     * Makes a single delivery attempt. A failed mail is put on the retry queue until it has used up all retries.
+     * @return transport to reuse for the next mail, empty after a failure.
+     */
+    private Transport send(Transport transport, PendingMail mail) {
+        try {
+            if (transport == null || !transport.isConnected()) {
+                transport = session.getTransport("smtp");
+                transport.connect();
+            }
+
+            mail.message.saveChanges();
+            transport.sendMessage(mail.message, mail.message.getAllRecipients());
+            return transport;
+        } catch (MessagingException e) {
+            close(transport);
+
+            if (mail.attempts++ >= configurationProperties.getMaxRetries()) {
+                log.error(String.format("Failed to send mail after %s attempts!", mail.attempts), e);
+            } else {
+                log.warn(String.format("Failed to send mail, retrying in %s ms", configurationProperties.getRetryDelay()), e);
+                mail.dueAt = System.currentTimeMillis() + configurationProperties.getRetryDelay();
+                retries.add(mail);
+            }
+
+            return null;
+        }
+    }
+
+    private Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.warn("Failed to close mail transport", e);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (configurationProperties.isAsync()) {
+            queue = new ArrayBlockingQueue<>(configurationProperties.getQueueCapacity());
+            running = true;
+
+            worker = new Thread(this::deliver, "todo-mail-sender");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (worker != null) {
+            running = false;
+            worker.join(configurationProperties.getIdleTimeout() + configurationProperties.getRetryDelay());
+            if (worker.isAlive()) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queued mail message with number of failed delivery attempts and the time its next attempt is due.
+     */
+    private static class PendingMail implements Delayed {
+        private final MimeMessage message;
+        private int attempts;
+        private long dueAt;
+
+        PendingMail(MimeMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
         }
     }
 }
@@ -36,6 +36,6 @@ public class ReportingService {
      */
     public void sendMailReport() {
         mailService.sendMail("users@example.org", "ToDo report",
-                String.format("There are '%s' todo entries!", todoListService.getAllEntries().size()));
+                String.format("There are '%s' todo entries!", todoListService.getEntryCount()));
     }
 }
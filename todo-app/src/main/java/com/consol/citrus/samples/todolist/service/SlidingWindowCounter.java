@@ -0,0 +1,62 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.service;
+
+/**
+ * Counts events in one second buckets of a ring covering the longest window. Buckets are reset lazily when the ring
+ * wraps around, so both adding and summing never touch more than the window size of buckets.
+ */
+class SlidingWindowCounter {
+
+    private final long[] seconds;
+    private final long[] counts;
+
+    SlidingWindowCounter(int windowSeconds) {
+        this.seconds = new long[windowSeconds];
+        this.counts = new long[windowSeconds];
+    }
+
+    synchronized void add(long timestamp, long amount) {
+        long second = timestamp / 1000L;
+        int bucket = (int) (second % seconds.length);
+        if (seconds[bucket] != second) {
+            seconds[bucket] = second;
+            counts[bucket] = 0L;
+        }
+
+        counts[bucket] += amount;
+    }
+
+    /**
+     * Sums all events of the given number of seconds up to the timestamp.
+     * @param timestamp
+     * @param windowSeconds
+     * @return
+     */
+    synchronized long sum(long timestamp, int windowSeconds) {
+        long second = timestamp / 1000L;
+        long sum = 0L;
+        for (int i = 0; i < Math.min(windowSeconds, seconds.length); i++) {
+            int bucket = (int) ((second - i) % seconds.length);
+            if (seconds[bucket] == second - i) {
+                sum += counts[bucket];
+            }
+        }
+
+        return sum;
+    }
+}
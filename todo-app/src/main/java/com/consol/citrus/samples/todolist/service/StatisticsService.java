@@ -0,0 +1,91 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import com.consol.citrus.samples.todolist.model.TodoStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Provides total and done counts of the todo list together with creation and completion rates over sliding windows.
+ * Counts are read from the storage on every call, so they cannot drift from the stored entries. In memory storages
+ * keep them up to date on every write, the Jdbc storage counts with queries unless they are cached. The todo list
+ * service reports creations and completions, so rates never touch the storage.
+ */
+@Service
+public class StatisticsService {
+
+    /** Sliding windows in seconds by name */
+    private static final Map<String, Integer> WINDOWS = new LinkedHashMap<>();
+
+    static {
+        WINDOWS.put("1m", 60);
+        WINDOWS.put("5m", 300);
+        WINDOWS.put("15m", 900);
+    }
+
+    @Autowired
+    private TodoListDao todoListDao;
+
+    private final SlidingWindowCounter created = new SlidingWindowCounter(900);
+    private final SlidingWindowCounter completed = new SlidingWindowCounter(900);
+
+    /**
+     * Gets current statistics.
+     * @return
+     */
+    public TodoStatistics getStatistics() {
+        long total = todoListDao.count();
+        long done = todoListDao.countDone();
+
+        long now = System.currentTimeMillis();
+        return new TodoStatistics(total, done, rates(created, now), rates(completed, now));
+    }
+
+    /**
+     * Records new entries.
+     * @param count number of new entries.
+     * @param doneCount number of new entries that are already done.
+     */
+    public void created(int count, int doneCount) {
+        long now = System.currentTimeMillis();
+        created.add(now, count);
+        if (doneCount > 0) {
+            completed.add(now, doneCount);
+        }
+    }
+
+    /**
+     * Records entries that have been marked as done.
+     * @param count
+     */
+    public void completed(int count) {
+        if (count > 0) {
+            completed.add(System.currentTimeMillis(), count);
+        }
+    }
+
+    private Map<String, Double> rates(SlidingWindowCounter counter, long now) {
+        Map<String, Double> rates = new LinkedHashMap<>();
+        WINDOWS.forEach((name, seconds) -> rates.put(name, counter.sum(now, seconds) * 60.0 / seconds));
+        return rates;
+    }
+}
@@ -16,13 +16,24 @@
 
 package com.consol.citrus.samples.todolist.service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.consol.citrus.samples.todolist.dao.TodoListCursor;
 import com.consol.citrus.samples.todolist.dao.TodoListDao;
+import com.consol.citrus.samples.todolist.model.TodoChangeEvent;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.consol.citrus.samples.todolist.model.TodoListPage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 /**
  * @author Christoph Deppisch
@@ -30,57 +41,177 @@ import org.springframework.stereotype.Service;
 @Service
 public class TodoListService {
 
+    /** Largest number of entries read for a single page */
+    public static final int MAX_PAGE_SIZE = 10000;
+
     @Autowired
     private TodoListDao todoListDao;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public void addEntry(TodoEntry entry) {
         todoListDao.save(entry);
+        statisticsService.created(1, entry.isDone() ? 1 : 0);
+        publish(TodoChangeEvent.of(TodoChangeEvent.Type.CREATED, entry));
+    }
+
+    public void addEntries(Collection<TodoEntry> entries) {
+        todoListDao.saveAll(entries);
+        statisticsService.created(entries.size(), (int) entries.stream().filter(TodoEntry::isDone).count());
+        entries.forEach(entry -> publish(TodoChangeEvent.of(TodoChangeEvent.Type.CREATED, entry)));
+    }
+
+    /**
+     * Updates entries in a single bulk write. Only entries whose status actually changed are reported as completed
+     * or reopened, edits of title and description are not published.
+     * @param entries
+     */
+    public void updateEntries(Collection<TodoEntry> entries) {
+        Set<UUID> wasDone = entries.stream()
+                .map(TodoEntry::getId)
+                .filter(id -> todoListDao.findById(id).map(TodoEntry::isDone).orElse(false))
+                .collect(Collectors.toSet());
+
+        todoListDao.updateAll(entries);
+
+        List<TodoEntry> changed = entries.stream()
+                .filter(entry -> entry.isDone() != wasDone.contains(entry.getId()))
+                .collect(Collectors.toList());
+        statisticsService.completed((int) changed.stream().filter(TodoEntry::isDone).count());
+        changed.forEach(entry -> publish(TodoChangeEvent.of(entry.isDone() ? TodoChangeEvent.Type.COMPLETED : TodoChangeEvent.Type.REOPENED, entry)));
+    }
+
+    /**
+     * Deletes entries in a single bulk write. Deleted events are published only for ids of entries that existed,
+     * unknown ids are ignored.
+     * @param uuids
+     * @return number of deleted entries.
+     */
+    public int deleteEntries(Collection<UUID> uuids) {
+        Set<UUID> existing = uuids.stream()
+                .filter(todoListDao::existsById)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        int deleted = todoListDao.deleteAll(existing);
+        if (deleted > 0) {
+            existing.forEach(uuid -> publish(new TodoChangeEvent(TodoChangeEvent.Type.DELETED, uuid, null, null)));
+        }
+        return deleted;
     }
 
     public Set<TodoEntry> getAllEntries() {
         return todoListDao.list();
     }
 
+    /**
+     * Lazily reads all entries. The stream must be closed after use.
+     * @return
+     */
+    public Stream<TodoEntry> streamAllEntries() {
+        return todoListDao.stream();
+    }
+
+    public long getEntryCount() {
+        return todoListDao.count();
+    }
+
+    public long getDoneEntryCount() {
+        return todoListDao.countDone();
+    }
+
+    /**
+     * Gets modification version of the todo list, changes after every write.
+     * @return
+     */
+    public long getVersion() {
+        return todoListDao.version();
+    }
+
     public Set<TodoEntry> getAllEntries(int limit) {
         return todoListDao.list(limit);
     }
 
+    /**
+     * Reads single page of entries in creation order. Pages are addressed by the cursor of the previous
+     * page so deep pages are as cheap to read as the first one.
+     * @param cursor next cursor of the previous page, or empty to read the first page.
+     * @param size maximum number of entries on the page, limited to {@link #MAX_PAGE_SIZE}.
+     * @return
+     */
+    public TodoListPage getPage(String cursor, int size) {
+        int pageSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+        TodoListCursor after = StringUtils.hasText(cursor) ? TodoListCursor.decode(cursor) : null;
+        List<TodoEntry> entries = todoListDao.list(after, pageSize + 1);
+
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            return new TodoListPage(entries, TodoListCursor.of(entries.get(pageSize - 1)).encode());
+        }
+
+        return new TodoListPage(entries, null);
+    }
+
+    /**
+     * Lists entries created within given time range in creation order.
+     * @param from creation time in milliseconds, inclusive.
+     * @param to creation time in milliseconds, exclusive.
+     * @return
+     */
+    public List<TodoEntry> getEntriesCreated(long from, long to) {
+        return todoListDao.listCreated(from, to);
+    }
+
     public void clear() {
         todoListDao.deleteAll();
+        publish(new TodoChangeEvent(TodoChangeEvent.Type.CLEARED, null, null, null));
     }
 
     public TodoEntry getEntry(UUID uuid) {
-        for (TodoEntry entry : todoListDao.list()) {
-            if (entry.getId().equals(uuid)) {
-                return entry;
-            }
-        }
-
-        throw new RuntimeException(String.format("Unable to find entry with uuid '%s'", uuid));
+        return todoListDao.findById(uuid)
+                .orElseThrow(() -> new RuntimeException(String.format("Unable to find entry with uuid '%s'", uuid)));
     }
 
     public void deleteEntry(String title) {
-        for (TodoEntry entry : todoListDao.list()) {
-            if (entry.getTitle().equals(title)) {
-                todoListDao.delete(entry);
-            }
+        if (todoListDao.deleteByTitle(title) > 0) {
+            publish(new TodoChangeEvent(TodoChangeEvent.Type.DELETED, null, title, null));
         }
     }
 
     public void deleteEntry(UUID uuid) {
-        for (TodoEntry entry : todoListDao.list()) {
-            if (entry.getId().equals(uuid)) {
-                todoListDao.delete(entry);
-                return;
-            }
+        Optional<TodoEntry> found = todoListDao.findById(uuid);
+        if (found.isEmpty() || !todoListDao.deleteById(uuid)) {
+            throw new RuntimeException(String.format("Unable to find entry with uuid '%s'", uuid));
         }
 
-        throw new RuntimeException(String.format("Unable to find entry with uuid '%s'", uuid));
+        publish(TodoChangeEvent.of(TodoChangeEvent.Type.DELETED, found.get()));
     }
 
     public void setStatus(UUID uuid, boolean done) {
-        TodoEntry entry = getEntry(uuid);
-        entry.setDone(done);
-        todoListDao.update(entry);
+        Optional<TodoEntry> found = todoListDao.findById(uuid);
+        boolean changed = found.isPresent() && found.get().isDone() != done;
+        String title = found.map(TodoEntry::getTitle).orElse(null);
+
+        if (!todoListDao.updateStatus(uuid, done)) {
+            throw new RuntimeException(String.format("Unable to find entry with uuid '%s'", uuid));
+        }
+
+        if (changed) {
+            if (done) {
+                statisticsService.completed(1);
+            }
+            publish(new TodoChangeEvent(done ? TodoChangeEvent.Type.COMPLETED : TodoChangeEvent.Type.REOPENED, uuid, title, done));
+        }
+    }
+
+    /**
+     * Publishes change event to all interested listeners, e.g. incremental Kafka and Jms reports.
+     * @param event
+     */
+    private void publish(TodoChangeEvent event) {
+        eventPublisher.publishEvent(event);
     }
 }
@@ -22,6 +22,7 @@ import java.util.Base64;
 import java.util.Iterator;
 import java.util.Set;
 
+import com.consol.citrus.samples.todolist.metrics.TodoMetrics;
 import com.consol.citrus.samples.todolist.model.Attachment;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import com.consol.citrus.samples.todolist.service.TodoListService;
@@ -54,9 +55,22 @@ public class TodoWebServiceEndpoint {
     @Autowired
     private TodoListService todoListService;
 
+    @Autowired
+    private TodoMetrics metrics;
+
     @PayloadRoot(namespace = NAMESPACE_URI, localPart = "addTodoEntryRequest")
     @ResponsePayload
     public AddTodoEntryResponse addTodoEntry(@RequestPayload AddTodoEntryRequest request, MessageContext messageContext) {
+        return metrics.record("todo.endpoint", "soap.addTodoEntry", () -> addEntry(request, messageContext));
+    }
+
+    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getTodoListRequest")
+    @ResponsePayload
+    public GetTodoListResponse getTodoList(@RequestPayload GetTodoListRequest request) {
+        return metrics.record("todo.endpoint", "soap.getTodoList", this::listEntries);
+    }
+
+    private AddTodoEntryResponse addEntry(AddTodoEntryRequest request, MessageContext messageContext) {
         TodoEntry entry = new TodoEntry(request.getTitle(), request.getDescription());
 
         Iterator<org.springframework.ws.mime.Attachment> it = ((SoapMessage)messageContext.getRequest()).getAttachments();
@@ -90,9 +104,7 @@ public class TodoWebServiceEndpoint {
         return response;
     }
 
-    @PayloadRoot(namespace = NAMESPACE_URI, localPart = "getTodoListRequest")
-    @ResponsePayload
-    public GetTodoListResponse getTodoList(@RequestPayload GetTodoListRequest request) {
+    private GetTodoListResponse listEntries() {
         Set<TodoEntry> todoEntryList = todoListService.getAllEntries();
 
         GetTodoListResponse response = new GetTodoListResponse();
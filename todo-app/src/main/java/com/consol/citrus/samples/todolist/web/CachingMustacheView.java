@@ -0,0 +1,71 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.web;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Map;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.view.MustacheView;
+import org.springframework.core.io.Resource;
+
+/**
+ * Mustache view compiling its template once on first render. The default view compiles the template on every
+ * request, even when the view itself is cached by the view resolver.
+ */
+public class CachingMustacheView extends MustacheView {
+
+    private Mustache.Compiler compiler;
+    private String charset;
+
+    private volatile Template template;
+
+    @Override
+    public void setCompiler(Mustache.Compiler compiler) {
+        super.setCompiler(compiler);
+        this.compiler = compiler;
+    }
+
+    @Override
+    public void setCharset(String charset) {
+        super.setCharset(charset);
+        this.charset = charset;
+    }
+
+    @Override
+    protected void renderMergedTemplateModel(Map<String, Object> model, HttpServletRequest request,
+                                             HttpServletResponse response) throws Exception {
+        Template compiled = template;
+        if (compiled == null) {
+            compiled = compile(getApplicationContext().getResource(getUrl()));
+            template = compiled;
+        }
+
+        compiled.execute(model, response.getWriter());
+    }
+
+    private Template compile(Resource resource) throws Exception {
+        try (Reader reader = charset != null ? new InputStreamReader(resource.getInputStream(), charset) :
+                new InputStreamReader(resource.getInputStream())) {
+            return compiler.compile(reader);
+        }
+    }
+}
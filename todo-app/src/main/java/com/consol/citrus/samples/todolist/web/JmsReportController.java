@@ -1,5 +1,6 @@
 package com.consol.citrus.samples.todolist.web;
 
+import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 import com.consol.citrus.samples.todolist.jms.TodoJmsReportProducer;
@@ -42,4 +43,14 @@ public class JmsReportController {
                                                     .filter(TodoEntry::isDone)
                                                     .collect(Collectors.toList()));
     }
+
+    @Operation(description = "Send Jms snapshot of all entries for consumers of the incremental report.", summary = "Send Jms snapshot", operationId = "sendJmsSnapshot" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @RequestMapping(value = "/snapshot", method = RequestMethod.GET)
+    @ResponseStatus(HttpStatus.OK)
+    public void sendJmsSnapshot() {
+        reportProducer.sendSnapshot(new ArrayList<>(todoListService.getAllEntries()));
+    }
 }
@@ -1,5 +1,6 @@
 package com.consol.citrus.samples.todolist.web;
 
+import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 import com.consol.citrus.samples.todolist.kafka.TodoKafkaReportProducer;
@@ -42,4 +43,14 @@ public class KafkaReportController {
                                                     .filter(TodoEntry::isDone)
                                                     .collect(Collectors.toList()));
     }
+
+    @Operation(description = "Send Kafka snapshot of all entries for consumers of the incremental report.", summary = "Send Kafka snapshot", operationId = "sendKafkaSnapshot" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @RequestMapping(value = "/snapshot", method = RequestMethod.GET)
+    @ResponseStatus(HttpStatus.OK)
+    public void sendKafkaSnapshot() {
+        reportProducer.sendSnapshot(new ArrayList<>(todoListService.getAllEntries()));
+    }
 }
@@ -16,15 +16,21 @@
 
 package com.consol.citrus.samples.todolist.web;
 
+import com.consol.citrus.samples.todolist.model.TodoStatistics;
+import com.consol.citrus.samples.todolist.service.MailQueueFullException;
 import com.consol.citrus.samples.todolist.service.ReportingService;
+import com.consol.citrus.samples.todolist.service.StatisticsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 /**
@@ -37,13 +43,32 @@ public class ReportingController {
     @Autowired
     private ReportingService reportingService;
 
+    @Autowired
+    private StatisticsService statisticsService;
+
     @Operation(description = "Send mail reporting.", summary = "Send mail reporting", operationId = "sendMailReport" )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable")
     })
     @RequestMapping(value = "/mail", method = RequestMethod.GET)
     @ResponseStatus(HttpStatus.OK)
     public void sendMailReport() {
         reportingService.sendMailReport();
     }
+
+    @ExceptionHandler(MailQueueFullException.class)
+    public ResponseEntity<String> mailQueueFull(MailQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    @Operation(description = "Gets total, done and open entry counts as well as creation and completion rates per minute over sliding windows.", summary = "Gets todo list statistics", operationId = "getStatistics" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @RequestMapping(value = "/stats", method = RequestMethod.GET)
+    @ResponseBody
+    public TodoStatistics getStatistics() {
+        return statisticsService.getStatistics();
+    }
 }
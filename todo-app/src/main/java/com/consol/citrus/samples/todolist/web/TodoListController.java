@@ -16,23 +16,37 @@
 
 package com.consol.citrus.samples.todolist.web;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.consol.citrus.samples.todolist.model.TodoEntry;
+import com.consol.citrus.samples.todolist.model.TodoListPage;
 import com.consol.citrus.samples.todolist.service.TodoListService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author Christoph Deppisch
@@ -44,22 +58,104 @@ public class TodoListController {
     @Autowired
     private TodoListService todoListService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WebConfigurationProperties configurationProperties;
+
     @Operation(description = "Returns all available todo entries.", summary = "List todo entries", operationId = "listTodoEntries" )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
     })
     @RequestMapping(method = RequestMethod.GET)
     @ResponseBody
-    public Set<TodoEntry> list() {
+    public Set<TodoEntry> list(WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
         return todoListService.getAllEntries();
     }
 
+    @Operation(description = "Returns all available todo entries. Entries are written to the response one by one while being read from the storage.", summary = "Stream todo entries", operationId = "streamTodoEntries" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
+    })
+    @RequestMapping(value = "/stream", method = RequestMethod.GET)
+    public ResponseEntity<StreamingResponseBody> stream(WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
+        StreamingResponseBody body = out -> {
+            try (Stream<TodoEntry> entries = todoListService.streamAllEntries();
+                 JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                for (Iterator<TodoEntry> it = entries.iterator(); it.hasNext();) {
+                    generator.writeObject(it.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     @RequestMapping(value = "/{limit}", method = RequestMethod.GET)
     @ResponseBody
-    public Set<TodoEntry> listWithLimit(@PathVariable(value = "limit") final int limit) {
+    public Set<TodoEntry> listWithLimit(@PathVariable(value = "limit") final int limit, WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
         return todoListService.getAllEntries(limit);
     }
 
+    @Operation(description = "Returns single page of todo entries in creation order. Use the next cursor of a page to fetch the following page.", summary = "List todo entries page", operationId = "listTodoEntriesPage" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified"),
+            @ApiResponse(responseCode = "400", description = "Bad Request")
+    })
+    @RequestMapping(value = "/page", method = RequestMethod.GET)
+    @ResponseBody
+    public TodoListPage listPage(@Parameter(description = "Cursor of the page to fetch, empty for the first page") @RequestParam(value = "cursor", required = false) String cursor,
+                                 @Parameter(description = "Maximum number of entries on the page, limited to the configured maximum page size") @RequestParam(value = "size", defaultValue = "50") int size,
+                                 WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
+        try {
+            return todoListService.getPage(cursor, Math.min(size, configurationProperties.getMaxPageSize()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @Operation(description = "Returns todo entries created within given time range in creation order. Clients poll for new entries by passing the time of their previous poll as start of the range.", summary = "List todo entries by creation time", operationId = "listTodoEntriesCreated" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
+    })
+    @RequestMapping(value = "/range", method = RequestMethod.GET)
+    @ResponseBody
+    public List<TodoEntry> listCreated(@Parameter(description = "Start of the range in epoch milliseconds, inclusive", required = true) @RequestParam(value = "from") long from,
+                                       @Parameter(description = "End of the range in epoch milliseconds, exclusive, defaults to the current time") @RequestParam(value = "to", required = false) Long to,
+                                       WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
+        return todoListService.getEntriesCreated(from, to != null ? to : System.currentTimeMillis());
+    }
+
     @Operation(description = "Adds new todo entry.", summary = "Add todo entry", operationId = "addTodoEntry" )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK")
@@ -71,6 +167,39 @@ public class TodoListController {
         return entry.getId().toString();
     }
 
+    @Operation(description = "Adds batch of new todo entries.", summary = "Add todo entries", operationId = "addTodoEntries" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @RequestMapping(value = "/batch", method = RequestMethod.POST)
+    @ResponseBody
+    public List<String> addAll(@Parameter(description = "Todo entries to be added", required = true) @RequestBody List<TodoEntry> entries) {
+        todoListService.addEntries(entries);
+        return entries.stream()
+                .map(entry -> entry.getId().toString())
+                .collect(Collectors.toList());
+    }
+
+    @Operation(description = "Updates batch of todo entries.", summary = "Update todo entries", operationId = "updateTodoEntries" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @RequestMapping(value = "/batch", method = RequestMethod.PUT)
+    @ResponseStatus(HttpStatus.OK)
+    public void updateAll(@Parameter(description = "Todo entries to be updated", required = true) @RequestBody List<TodoEntry> entries) {
+        todoListService.updateEntries(entries);
+    }
+
+    @Operation(description = "Deletes batch of todo entries identified by their ids.", summary = "Delete todo entries by id", operationId = "deleteTodoEntriesById" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @RequestMapping(value = "/batch", method = RequestMethod.DELETE)
+    @ResponseBody
+    public Integer deleteAll(@Parameter(description = "IDs of todo entries that should be deleted", required = true) @RequestBody List<UUID> ids) {
+        return todoListService.deleteEntries(ids);
+    }
+
     @Operation(description = "Delete all todo entries.", summary = "Delete all todo entries", operationId = "deleteTodoEntries" )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK")
@@ -83,12 +212,39 @@ public class TodoListController {
 
     @Operation(description = "Gets number of available todo entries.", summary = "Gets number of todo entries", operationId = "getTodoEntryCount" )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK")
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
     })
     @RequestMapping(value = "/count", method = RequestMethod.GET)
     @ResponseBody
-    public Integer getTodoCount() {
-        return todoListService.getAllEntries().size();
+    public Long getTodoCount(WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
+        return todoListService.getEntryCount();
     }
 
+    @Operation(description = "Gets number of todo entries that are marked as done.", summary = "Gets number of done todo entries", operationId = "getDoneTodoEntryCount" )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "304", description = "Not Modified")
+    })
+    @RequestMapping(value = "/count/done", method = RequestMethod.GET)
+    @ResponseBody
+    public Long getDoneTodoCount(WebRequest request) {
+        if (request.checkNotModified(etag())) {
+            return null;
+        }
+
+        return todoListService.getDoneEntryCount();
+    }
+
+    /**
+     * Gets the entity tag of the current todo list version. It is read before the entries, so a concurrent write
+     * yields a tag that is already outdated rather than a tag matching content that has not been sent.
+     */
+    private String etag() {
+        return TodoListETags.of(todoListService.getVersion());
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.web;
+
+/**
+ * Builds weak entity tags from the modification version of the todo list. Tags also hold the start time of the
+ * application, so tags handed out before a restart never match, even though versions start over.
+ *
+ * Tags are weak because they identify the todo list version, not the exact bytes of a possibly compressed response.
+ * Tomcat does not compress responses carrying a strong tag.
+ */
+final class TodoListETags {
+
+    private static final String INSTANCE = Long.toHexString(System.currentTimeMillis());
+
+    private TodoListETags() {
+    }
+
+    /**
+     * Gets the entity tag of all representations of the todo list at given version.
+     * @param version
+     * @return
+     */
+    static String of(long version) {
+        return "W/\"" + INSTANCE + "-" + Long.toHexString(version) + "\"";
+    }
+}
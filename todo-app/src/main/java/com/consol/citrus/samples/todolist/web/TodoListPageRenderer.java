@@ -0,0 +1,160 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.web;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.consol.citrus.samples.todolist.model.TodoListPage;
+import com.consol.citrus.samples.todolist.service.TodoListService;
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Renders single pages of the todo list page. Only the entries of the requested page are read from the storage, so
+ * rendering cost depends on the page size rather than on the number of stored entries. Rendered pages are kept in a
+ * least recently used cache for the current storage version and dropped as soon as the version changes.
+ */
+@Component
+public class TodoListPageRenderer {
+
+    /** Template rendering the entries of a page */
+    private static final String ENTRIES_TEMPLATE = "todo-entries";
+
+    private final Mustache.Compiler compiler;
+    private final TodoListService todoListService;
+    private final WebConfigurationProperties configurationProperties;
+
+    /** Compiled templates by name */
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    /** Rendered pages of the current version by cursor and size */
+    private final Map<String, RenderedPage> pages;
+
+    /** Storage version of the cached pages, guarded by pages */
+    private long version = Long.MIN_VALUE;
+
+    public TodoListPageRenderer(Mustache.Compiler compiler, TodoListService todoListService, WebConfigurationProperties configurationProperties) {
+        this.compiler = compiler;
+        this.todoListService = todoListService;
+        this.configurationProperties = configurationProperties;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RenderedPage> eldest) {
+                return size() > configurationProperties.getPageCacheSize();
+            }
+        };
+    }
+
+    /**
+     * Renders the page following given cursor. The version must be read before the call, so a page rendered from
+     * entries of a newer version is never cached under a version that is already outdated.
+     * @param version storage version read before rendering.
+     * @param cursor cursor of the page, empty for the first page.
+     * @param size page size, the configured default when empty.
+     * @return
+     */
+    public RenderedPage render(long version, String cursor, Integer size) {
+        int pageSize = size != null ? Math.min(Math.max(1, size), configurationProperties.getMaxPageSize()) : configurationProperties.getPageSize();
+        String pageCursor = StringUtils.hasText(cursor) ? cursor : null;
+        String key = pageCursor + ":" + pageSize;
+
+        synchronized (pages) {
+            if (version > this.version) {
+                pages.clear();
+                this.version = version;
+            }
+
+            RenderedPage cached = pages.get(key);
+            if (cached != null && version == this.version) {
+                return cached;
+            }
+        }
+
+        TodoListPage page = todoListService.getPage(pageCursor, pageSize);
+        RenderedPage rendered = new RenderedPage(template(ENTRIES_TEMPLATE).execute(page), pageCursor, page.getNext(), pageSize);
+
+        synchronized (pages) {
+            if (version == this.version) {
+                pages.put(key, rendered);
+            }
+        }
+
+        return rendered;
+    }
+
+    private Template template(String name) {
+        return templates.computeIfAbsent(name, compiler::loadTemplate);
+    }
+
+    /**
+     * Rendered entries of a page together with the cursors needed to navigate from it.
+     */
+    public static class RenderedPage {
+
+        private final String entries;
+        private final String cursor;
+        private final String next;
+        private final int size;
+
+        RenderedPage(String entries, String cursor, String next, int size) {
+            this.entries = entries;
+            this.cursor = cursor;
+            this.next = next;
+            this.size = size;
+        }
+
+        /**
+         * Gets the rendered entries markup.
+         *
+         * @return
+         */
+        public String getEntries() {
+            return entries;
+        }
+
+        /**
+         * Gets the cursor of this page, empty on the first page.
+         *
+         * @return
+         */
+        public String getCursor() {
+            return cursor;
+        }
+
+        /**
+         * Gets the cursor of the following page, empty on the last page.
+         *
+         * @return
+         */
+        public String getNext() {
+            return next;
+        }
+
+        /**
+         * Gets the size.
+         *
+         * @return
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+}
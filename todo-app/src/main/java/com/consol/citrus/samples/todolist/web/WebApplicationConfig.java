@@ -0,0 +1,47 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.web;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.view.MustacheViewResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures rendering of the todo list page. Mustache views created by the auto configured view resolver keep their
+ * compiled template, so with view caching enabled each template is compiled once.
+ */
+@Configuration
+@EnableConfigurationProperties(WebConfigurationProperties.class)
+public class WebApplicationConfig {
+
+    @Bean
+    public static BeanPostProcessor cachingMustacheViewPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof MustacheViewResolver) {
+                    ((MustacheViewResolver) bean).setViewClass(CachingMustacheView.class);
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the server side rendered todo list page.
+ */
+@ConfigurationProperties(prefix = "todo.web")
+public class WebConfigurationProperties {
+
+    /**
+     * Number of entries rendered on a page when the request does not ask for a size.
+     */
+    private int pageSize = 50;
+
+    /**
+     * Largest page size a request may ask for, applies to the rendered page and to the paged Rest API.
+     */
+    private int maxPageSize = 500;
+
+    /**
+     * Maximum number of rendered pages held in memory, least recently used pages are evicted first.
+     */
+    private int pageCacheSize = 64;
+
+    /**
+     * Gets the pageSize.
+     *
+     * @return
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the pageSize.
+     *
+     * @param pageSize
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Gets the maxPageSize.
+     *
+     * @return
+     */
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    /**
+     * Sets the maxPageSize.
+     *
+     * @param maxPageSize
+     */
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Gets the pageCacheSize.
+     *
+     * @return
+     */
+    public int getPageCacheSize() {
+        return pageCacheSize;
+    }
+
+    /**
+     * Sets the pageCacheSize.
+     *
+     * @param pageCacheSize
+     */
+    public void setPageCacheSize(int pageCacheSize) {
+        this.pageCacheSize = pageCacheSize;
+    }
+}
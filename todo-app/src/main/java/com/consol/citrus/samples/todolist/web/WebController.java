@@ -19,9 +19,12 @@ package com.consol.citrus.samples.todolist.web;
 import com.consol.citrus.samples.todolist.model.TodoEntry;
 import com.consol.citrus.samples.todolist.service.TodoListService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
  * @author Christoph Deppisch
@@ -33,9 +36,24 @@ public class WebController {
     @Autowired
     private TodoListService todoListService;
 
+    @Autowired
+    private TodoListPageRenderer pageRenderer;
+
     @RequestMapping(value = "/todolist", method = RequestMethod.GET)
-    public String listHtml(Model model) {
-        model.addAttribute("todos", todoListService.getAllEntries());
+    public String listHtml(@RequestParam(value = "cursor", required = false) String cursor,
+                           @RequestParam(value = "size", required = false) Integer size,
+                           Model model, WebRequest request) {
+        long version = todoListService.getVersion();
+        if (request.checkNotModified(TodoListETags.of(version))) {
+            return null;
+        }
+
+        try {
+            model.addAttribute("page", pageRenderer.render(version, cursor, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
         return "todo";
     }
 
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import com.consol.citrus.samples.todolist.model.Attachment;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingTodoListDaoTest {
+
+    private FailingTodoListDao storage;
+    private CachingTodoListDao dao;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfigurationProperties configurationProperties = new CacheConfigurationProperties();
+        configurationProperties.setEnabled(true);
+        configurationProperties.setWriteBehind(true);
+        // flushes are triggered by the tests only
+        configurationProperties.setFlushInterval(3600000L);
+
+        storage = new FailingTodoListDao();
+        dao = new CachingTodoListDao(storage, configurationProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        storage.failures = 0;
+        storage.rejected.clear();
+        dao.destroy();
+    }
+
+    @Test
+    void saveIsWrittenOnFlush() {
+        TodoEntry entry = new TodoEntry("Write behind", "Saved on flush");
+        dao.save(entry);
+
+        assertThat(storage.existsById(entry.getId())).isFalse();
+        assertThat(dao.findById(entry.getId())).contains(entry);
+
+        dao.flush();
+
+        assertThat(storage.existsById(entry.getId())).isTrue();
+    }
+
+    @Test
+    void saveFollowedByUpdateKeepsStoredFields() {
+        TodoEntry entry = new TodoEntry(UUID.randomUUID(), "Original", "Original description", 1000L);
+        entry.setAttachment(attachment());
+        dao.save(entry);
+
+        TodoEntry update = new TodoEntry(entry.getId(), "Updated", "Updated description");
+        update.setDone(true);
+        dao.update(update);
+
+        assertUpdated(dao.findById(entry.getId()).orElseThrow(), entry);
+
+        dao.flush();
+
+        assertThat(storage.saveAllCalls).isEqualTo(1);
+        assertThat(storage.updateAllCalls).isZero();
+        assertUpdated(storage.findById(entry.getId()).orElseThrow(), entry);
+    }
+
+    @Test
+    void updateOfStoredEntryKeepsStoredFields() {
+        TodoEntry entry = new TodoEntry(UUID.randomUUID(), "Original", "Original description", 1000L);
+        entry.setAttachment(attachment());
+        storage.save(entry);
+
+        TodoEntry update = new TodoEntry(entry.getId(), "Updated", "Updated description");
+        update.setDone(true);
+        dao.update(update);
+        dao.flush();
+
+        assertUpdated(storage.findById(entry.getId()).orElseThrow(), entry);
+    }
+
+    @Test
+    void saveFollowedByDeleteIsNotWritten() {
+        TodoEntry entry = new TodoEntry("Short lived", "Deleted before flush");
+        dao.save(entry);
+        assertThat(dao.deleteById(entry.getId())).isTrue();
+        assertThat(dao.findById(entry.getId())).isEmpty();
+
+        dao.flush();
+
+        assertThat(storage.saveAllCalls).isZero();
+        assertThat(storage.count()).isZero();
+    }
+
+    @Test
+    void failedBulkWriteFallsBackToSingleWrites() {
+        TodoEntry first = new TodoEntry("First", "Written one by one");
+        TodoEntry rejected = new TodoEntry("Rejected", "Always rejected by the storage");
+        TodoEntry last = new TodoEntry("Last", "Written one by one");
+        dao.save(first);
+        dao.save(rejected);
+        dao.save(last);
+
+        storage.rejected.add(rejected.getId());
+        assertThatThrownBy(dao::flush).isInstanceOf(DataAccessException.class);
+
+        assertThat(storage.existsById(first.getId())).isTrue();
+        assertThat(storage.existsById(last.getId())).isTrue();
+        assertThat(storage.existsById(rejected.getId())).isFalse();
+        assertThat(dao.findById(rejected.getId())).contains(rejected);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        TodoEntry entry = new TodoEntry("Retried", "Written by second flush");
+        dao.save(entry);
+
+        // bulk write and single write fallback
+        storage.failures = 2;
+        assertThatThrownBy(dao::flush).isInstanceOf(DataAccessException.class);
+
+        assertThat(storage.existsById(entry.getId())).isFalse();
+        assertThat(dao.findById(entry.getId())).contains(entry);
+
+        dao.flush();
+
+        assertThat(storage.saveAllCalls).isEqualTo(2);
+        assertThat(storage.existsById(entry.getId())).isTrue();
+    }
+
+    @Test
+    void writeAfterFailedFlushIsMergedWithRetry() {
+        TodoEntry entry = new TodoEntry(UUID.randomUUID(), "Original", "Original description", 1000L);
+        dao.save(entry);
+
+        storage.failures = 2;
+        assertThatThrownBy(dao::flush).isInstanceOf(DataAccessException.class);
+
+        assertThat(dao.updateStatus(entry.getId(), true)).isTrue();
+        dao.flush();
+
+        TodoEntry stored = storage.findById(entry.getId()).orElseThrow();
+        assertThat(stored.isDone()).isTrue();
+        assertThat(stored.getCreatedAt()).isEqualTo(1000L);
+        assertThat(storage.updateAllCalls).isZero();
+    }
+
+    @Test
+    void rejectedWriteIsDroppedAfterMaxAttempts() {
+        TodoEntry entry = new TodoEntry("Kept", "Written despite rejected batch mate");
+        TodoEntry rejected = new TodoEntry("Poison", "Never written");
+        dao.save(entry);
+        dao.save(rejected);
+
+        storage.rejected.add(rejected.getId());
+        for (int i = 0; i < CachingTodoListDao.MAX_WRITE_ATTEMPTS; i++) {
+            assertThatThrownBy(dao::flush).isInstanceOf(DataAccessException.class);
+        }
+
+        dao.flush();
+
+        assertThat(storage.existsById(entry.getId())).isTrue();
+        assertThat(storage.existsById(rejected.getId())).isFalse();
+        assertThat(dao.findById(rejected.getId())).isEmpty();
+    }
+
+    private void assertUpdated(TodoEntry updated, TodoEntry original) {
+        assertThat(updated.getTitle()).isEqualTo("Updated");
+        assertThat(updated.getDescription()).isEqualTo("Updated description");
+        assertThat(updated.isDone()).isTrue();
+        assertThat(updated.getCreatedAt()).isEqualTo(original.getCreatedAt());
+        assertThat(updated.getOrderKey()).isEqualTo(original.getOrderKey());
+        assertThat(updated.getAttachment()).isSameAs(original.getAttachment());
+    }
+
+    private Attachment attachment() {
+        Attachment attachment = new Attachment();
+        attachment.setCid("attachment");
+        attachment.setContentType("text/plain");
+        attachment.setData("data");
+        return attachment;
+    }
+
+    /**
+     * In memory storage that fails a given number of writes and always rejects writes of given entries. Bulk writes
+     * are atomic like the Jdbc storage, either all entries are written or none.
+     */
+    private static class FailingTodoListDao extends InMemoryTodoListDao {
+
+        private final Set<UUID> rejected = new HashSet<>();
+        private int failures;
+        private int saveAllCalls;
+        private int updateAllCalls;
+
+        @Override
+        public void save(TodoEntry entry) {
+            check(List.of(entry));
+            super.save(entry);
+        }
+
+        @Override
+        public void update(TodoEntry entry) {
+            check(List.of(entry));
+            super.update(entry);
+        }
+
+        @Override
+        public void saveAll(Collection<TodoEntry> entries) {
+            saveAllCalls++;
+            check(entries);
+            for (TodoEntry entry : entries) {
+                super.save(entry);
+            }
+        }
+
+        @Override
+        public void updateAll(Collection<TodoEntry> entries) {
+            updateAllCalls++;
+            check(entries);
+            for (TodoEntry entry : entries) {
+                super.update(entry);
+            }
+        }
+
+        private void check(Collection<TodoEntry> entries) {
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessException("Storage unavailable");
+            }
+
+            for (TodoEntry entry : entries) {
+                if (rejected.contains(entry.getId())) {
+                    throw new DataAccessException("Storage rejected entry " + entry.getId());
+                }
+            }
+        }
+    }
+}
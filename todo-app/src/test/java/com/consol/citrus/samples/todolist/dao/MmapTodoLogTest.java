@@ -0,0 +1,362 @@
+/*
+ * Copyright 2006-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.dao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.consol.citrus.samples.todolist.model.Attachment;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MmapTodoLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartReplaysAllRecords() throws IOException {
+        TodoEntry first = new TodoEntry("First", "Deleted before restart");
+        TodoEntry second = new TodoEntry("Second", "Survives restart");
+        second.setDone(true);
+        second.setAttachment(attachment());
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(first);
+        todoLog.put(second);
+        todoLog.delete(first.getId());
+        todoLog.force();
+
+        RecordingHandler replayed = new RecordingHandler();
+        open(replayed);
+
+        assertThat(replayed.entries).containsOnlyKeys(second.getId());
+        assertRestored(replayed.entries.get(second.getId()), second);
+    }
+
+    @Test
+    void clearDropsEarlierRecords() throws IOException {
+        TodoEntry cleared = new TodoEntry("Cleared", "Written before clear");
+        TodoEntry kept = new TodoEntry("Kept", "Written after clear");
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(cleared);
+        todoLog.clear();
+        todoLog.put(kept);
+        todoLog.force();
+
+        RecordingHandler replayed = new RecordingHandler();
+        open(replayed);
+
+        assertThat(replayed.entries).containsOnlyKeys(kept.getId());
+    }
+
+    @Test
+    void restartReplaysRolledSegments() throws IOException {
+        MmapTodoLog todoLog = new MmapTodoLog(directory, 256);
+        todoLog.open(new RecordingHandler());
+        for (int i = 0; i < 20; i++) {
+            todoLog.put(new TodoEntry("todo-" + i, "Description of todo entry " + i));
+        }
+        todoLog.force();
+        assertThat(todoLog.segmentCount()).isGreaterThan(1);
+
+        RecordingHandler replayed = new RecordingHandler();
+        MmapTodoLog reopened = new MmapTodoLog(directory, 256);
+        reopened.open(replayed);
+
+        assertThat(replayed.entries).hasSize(20);
+        assertThat(reopened.segmentCount()).isEqualTo(todoLog.segmentCount());
+    }
+
+    @Test
+    void tornTailIsDroppedAndOverwritten() throws IOException {
+        TodoEntry complete = new TodoEntry("Complete", "Written before crash");
+        TodoEntry torn = new TodoEntry("Torn", "Partially written on crash");
+        TodoEntry appended = new TodoEntry("Appended", "Written after restart");
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(complete);
+        todoLog.put(torn);
+        todoLog.force();
+
+        // flip a byte of the last record body, as if the crash happened while writing it
+        Path segment = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int position = lastRecordPosition(bytes) + 8 + 1;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { (byte) (bytes[position] ^ 0x7F) }), position);
+        }
+
+        RecordingHandler replayed = new RecordingHandler();
+        MmapTodoLog reopened = open(replayed);
+        assertThat(replayed.entries).containsOnlyKeys(complete.getId());
+
+        reopened.put(appended);
+        reopened.force();
+
+        RecordingHandler restarted = new RecordingHandler();
+        open(restarted);
+        assertThat(restarted.entries).containsOnlyKeys(complete.getId(), appended.getId());
+    }
+
+    @Test
+    void tornRecordWithoutLengthDoesNotResurrectLaterRecords() throws IOException {
+        TodoEntry complete = new TodoEntry("Complete", "Written before crash");
+        TodoEntry torn = new TodoEntry("Torn", "Lost on crash");
+        TodoEntry stale = new TodoEntry("Stale", "Behind the torn record");
+        TodoEntry appended = new TodoEntry("Next", "After restart");
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(complete);
+        todoLog.put(torn);
+        todoLog.put(stale);
+        todoLog.force();
+
+        // clear the length of the second record, as if the crash happened before its header was written
+        Path segment = segmentFiles().get(0);
+        int position = 8 + ByteBuffer.wrap(Files.readAllBytes(segment)).getInt(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), position);
+        }
+
+        RecordingHandler replayed = new RecordingHandler();
+        MmapTodoLog reopened = open(replayed);
+        assertThat(replayed.entries).containsOnlyKeys(complete.getId());
+
+        // the appended record has the size of the torn record, so the stale record would follow it seamlessly
+        reopened.put(appended);
+        reopened.force();
+
+        RecordingHandler restarted = new RecordingHandler();
+        open(restarted);
+        assertThat(restarted.entries).containsOnlyKeys(complete.getId(), appended.getId());
+    }
+
+    @Test
+    void leftoverCompactionFileIsDiscarded() throws IOException {
+        TodoEntry entry = new TodoEntry("Entry", "Written before compaction crash");
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(entry);
+        todoLog.force();
+
+        Path leftover = directory.resolve(String.format("segment-%020d.log.compact", 2));
+        Files.write(leftover, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+        RecordingHandler replayed = new RecordingHandler();
+        open(replayed);
+
+        assertThat(replayed.entries).containsOnlyKeys(entry.getId());
+        assertThat(leftover).doesNotExist();
+    }
+
+    @Test
+    void compactionReplaysToSameState() throws IOException {
+        TodoEntry deleted = new TodoEntry("Deleted", "Removed before compaction");
+        TodoEntry live = new TodoEntry("Live", "Kept by compaction");
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(deleted);
+        todoLog.put(live);
+        todoLog.delete(deleted.getId());
+        todoLog.force();
+        todoLog.compact(List.of(live));
+
+        RecordingHandler replayed = new RecordingHandler();
+        MmapTodoLog reopened = open(replayed);
+
+        assertThat(replayed.entries).containsOnlyKeys(live.getId());
+        assertThat(reopened.segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionCrashBeforeDeletingOldSegmentsReplaysToSameState() throws IOException {
+        TodoEntry deleted = new TodoEntry("Deleted", "Removed before compaction");
+        TodoEntry live = new TodoEntry("Live", "Kept by compaction");
+
+        MmapTodoLog todoLog = open(new RecordingHandler());
+        todoLog.put(deleted);
+        todoLog.put(live);
+        todoLog.delete(deleted.getId());
+        todoLog.force();
+
+        Path oldSegment = segmentFiles().get(0);
+        byte[] oldBytes = Files.readAllBytes(oldSegment);
+        todoLog.compact(List.of(live));
+
+        // the compacted segment has been renamed, but the old segment is still there
+        Files.write(oldSegment, oldBytes);
+
+        RecordingHandler replayed = new RecordingHandler();
+        open(replayed);
+
+        assertThat(replayed.entries).containsOnlyKeys(live.getId());
+    }
+
+    @Test
+    void putRecordOfEarlierReleaseIsRestored() throws IOException {
+        UUID id = UUID.randomUUID();
+        writeSegment(1, legacyPut(id, "Legacy", "Written without order key", 5000L, true));
+
+        RecordingHandler replayed = new RecordingHandler();
+        open(replayed);
+
+        TodoEntry restored = replayed.entries.get(id);
+        assertThat(restored.getTitle()).isEqualTo("Legacy");
+        assertThat(restored.getDescription()).isEqualTo("Written without order key");
+        assertThat(restored.isDone()).isTrue();
+        assertThat(restored.getCreatedAt()).isEqualTo(5000L);
+        assertThat(restored.getOrderKey()).isEqualTo(TodoEntry.orderKeyOf(5000L));
+        assertThat(restored.getAttachment()).isNull();
+    }
+
+    @Test
+    void unknownRecordTypeFailsOpen() throws IOException {
+        UUID id = UUID.randomUUID();
+        writeSegment(1, new byte[] { 99, 0, 0, 0 }, legacyPut(id, "Behind", "Record behind unknown record", 5000L, false));
+
+        assertThatThrownBy(() -> open(new RecordingHandler()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("segment-00000000000000000001.log");
+    }
+
+    private MmapTodoLog open(RecordingHandler handler) throws IOException {
+        MmapTodoLog todoLog = new MmapTodoLog(directory, SEGMENT_SIZE);
+        todoLog.open(handler);
+        return todoLog;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private int lastRecordPosition(byte[] segment) {
+        ByteBuffer buffer = ByteBuffer.wrap(segment);
+        int last = -1;
+        int position = 0;
+        while (position + 8 <= segment.length && buffer.getInt(position) > 0) {
+            last = position;
+            position += 8 + buffer.getInt(position);
+        }
+
+        return last;
+    }
+
+    private void writeSegment(long sequence, byte[]... bodies) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_SIZE);
+        for (byte[] body : bodies) {
+            CRC32 checksum = new CRC32();
+            checksum.update(body);
+            buffer.putInt(body.length);
+            buffer.putInt((int) checksum.getValue());
+            buffer.put(body);
+        }
+
+        Files.write(directory.resolve(String.format("segment-%020d.log", sequence)), buffer.array());
+    }
+
+    /**
+     * Encodes put record as written before order keys have been stored.
+     */
+    private byte[] legacyPut(UUID id, String title, String description, long createdAt, boolean done) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(1);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+        out.writeLong(createdAt);
+        out.writeBoolean(done);
+        writeString(out, title);
+        writeString(out, description);
+        out.writeBoolean(false);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void assertRestored(TodoEntry restored, TodoEntry original) {
+        assertThat(restored.getTitle()).isEqualTo(original.getTitle());
+        assertThat(restored.getDescription()).isEqualTo(original.getDescription());
+        assertThat(restored.isDone()).isEqualTo(original.isDone());
+        assertThat(restored.getCreatedAt()).isEqualTo(original.getCreatedAt());
+        assertThat(restored.getOrderKey()).isEqualTo(original.getOrderKey());
+        assertThat(restored.getAttachment().getCid()).isEqualTo(original.getAttachment().getCid());
+        assertThat(restored.getAttachment().getContentType()).isEqualTo(original.getAttachment().getContentType());
+        assertThat(restored.getAttachment().getData()).isEqualTo(original.getAttachment().getData());
+    }
+
+    private Attachment attachment() {
+        Attachment attachment = new Attachment();
+        attachment.setCid("attachment");
+        attachment.setContentType("text/plain");
+        attachment.setData("data");
+        return attachment;
+    }
+
+    /**
+     * Collects replayed records into the resulting set of entries.
+     */
+    private static class RecordingHandler implements MmapTodoLog.RecordHandler {
+
+        private final Map<UUID, TodoEntry> entries = new LinkedHashMap<>();
+
+        @Override
+        public void put(TodoEntry entry) {
+            entries.put(entry.getId(), entry);
+        }
+
+        @Override
+        public void delete(UUID id) {
+            entries.remove(id);
+        }
+
+        @Override
+        public void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2006-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.samples.todolist.kafka;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.consol.citrus.samples.todolist.codec.TodoEntryCodec;
+import com.consol.citrus.samples.todolist.model.TodoEntry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoReportChunkAssemblerTest {
+
+    private final TodoEntryCodec codec = new TodoEntryCodec();
+
+    private final TodoReportChunkAssembler assembler = new TodoReportChunkAssembler(codec, 1000L, 10, 2);
+
+    @Test
+    void chunksAreAssembledInSequenceOrder() throws IOException {
+        assertThat(assembler.add(chunk("report", "1", "3", "Second"), 0L)).isEmpty();
+        assertThat(assembler.add(chunk("report", "2", "3", "Third"), 0L)).isEmpty();
+        assertThat(assembler.pendingReports()).isEqualTo(1);
+
+        Optional<List<TodoEntry>> report = assembler.add(chunk("report", "0", "3", "First"), 0L);
+
+        assertThat(report).isPresent();
+        assertThat(titles(report.get())).containsExactly("First", "Second", "Third");
+        assertThat(assembler.pendingReports()).isZero();
+    }
+
+    @Test
+    void redeliveredChunkIsCountedOnce() throws IOException {
+        assertThat(assembler.add(chunk("report", "0", "2", "First"), 0L)).isEmpty();
+        assertThat(assembler.add(chunk("report", "0", "2", "First"), 0L)).isEmpty();
+
+        Optional<List<TodoEntry>> report = assembler.add(chunk("report", "1", "2", "Second"), 0L);
+
+        assertThat(titles(report.get())).containsExactly("First", "Second");
+    }
+
+    @Test
+    void recordWithoutReportIdIsCompleteReport() throws IOException {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("todo.report", 0, 0L, null, entries("Single"));
+
+        assertThat(titles(assembler.add(record, 0L).get())).containsExactly("Single");
+        assertThat(assembler.pendingReports()).isZero();
+    }
+
+    @Test
+    void byteValuesAreDecoded() throws IOException {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>("todo.report", 0, 0L, null,
+                entries("Bytes").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(titles(assembler.readChunk(record))).containsExactly("Bytes");
+    }
+
+    @Test
+    void invalidChunkHeadersAreRejected() throws IOException {
+        assertThatThrownBy(() -> assembler.add(chunk("report", "0", "0", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> assembler.add(chunk("report", "0", "11", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> assembler.add(chunk("report", "3", "3", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> assembler.add(chunk("report", "-1", "3", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> assembler.add(chunk("report", "first", "3", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> assembler.add(chunk("report", null, "3", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(assembler.pendingReports()).isZero();
+
+        assembler.add(chunk("report", "0", "3", "Entry"), 0L);
+        assertThatThrownBy(() -> assembler.add(chunk("report", "1", "4", "Entry"), 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(assembler.pendingReports()).isEqualTo(1);
+    }
+
+    @Test
+    void incompleteReportIsEvictedAfterTimeout() throws IOException {
+        assembler.add(chunk("report", "0", "2", "First"), 0L);
+
+        assembler.add(chunk("other", "0", "2", "Other"), 1001L);
+
+        assertThat(assembler.pendingReports()).isEqualTo(1);
+        assertThat(assembler.add(chunk("report", "1", "2", "Second"), 1001L)).isEmpty();
+    }
+
+    @Test
+    void oldestIncompleteReportIsEvictedWhenLimitIsReached() throws IOException {
+        assembler.add(chunk("first", "0", "2", "First"), 0L);
+        assembler.add(chunk("second", "0", "2", "Second"), 0L);
+
+        assembler.add(chunk("third", "0", "2", "Third"), 0L);
+
+        assertThat(assembler.pendingReports()).isEqualTo(2);
+        assertThat(assembler.add(chunk("first", "1", "2", "First"), 0L)).isEmpty();
+    }
+
+    private ConsumerRecord<String, String> chunk(String reportId, String sequence, String total, String title)
+            throws IOException {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("todo.report", 0, 0L, reportId, entries(title));
+        record.headers().add(TodoKafkaReportProducer.REPORT_ID_HEADER, reportId.getBytes(StandardCharsets.UTF_8));
+        if (sequence != null) {
+            record.headers().add(TodoKafkaReportProducer.CHUNK_SEQUENCE_HEADER, sequence.getBytes(StandardCharsets.UTF_8));
+        }
+        record.headers().add(TodoKafkaReportProducer.CHUNK_TOTAL_HEADER, total.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private String entries(String title) throws IOException {
+        return codec.writeEntries(Collections.singletonList(new TodoEntry(title, "Description")));
+    }
+
+    private List<String> titles(List<TodoEntry> entries) {
+        return entries.stream().map(TodoEntry::getTitle).collect(Collectors.toList());
+    }
+}